@@ -0,0 +1,85 @@
+package com.michael.benchmarks;
+
+import com.michael.ProjectApplication;
+import com.michael.dto.BatchItemResult;
+import com.michael.model.Employee;
+import com.michael.reactive.ReactiveProjectApplication;
+import com.michael.service.EmployeeService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// the real application context on its own in-memory H2 database
+final class BenchmarkApplication {
+    // the largest batch the API accepts
+    private static final int SEED_BATCH_SIZE = 10000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return start(databaseName, WebApplicationType.NONE);
+    }
+
+    // with Tomcat on a random free port, for load tests over HTTP
+    static ConfigurableApplicationContext startWebServer(String databaseName) {
+        return start(databaseName, WebApplicationType.SERVLET);
+    }
+
+    // the WebFlux + R2DBC stack with Netty on a random free port; pool-size connections like Hikari's default
+    static ConfigurableApplicationContext startReactiveWebServer(String databaseName, int poolSize) {
+        return new SpringApplicationBuilder(ReactiveProjectApplication.class)
+                .profiles(ReactiveProjectApplication.PROFILE)
+                .run("--server.port=0",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        "--spring.r2dbc.pool.initial-size=" + poolSize,
+                        "--spring.r2dbc.pool.max-size=" + poolSize,
+                        "--spring.sql.init.mode=always",
+                        "--spring.sql.init.schema-locations=classpath:reactive-schema.sql",
+                        "--logging.level.root=WARN");
+    }
+
+    private static ConfigurableApplicationContext start(String databaseName, WebApplicationType webApplicationType) {
+        return new SpringApplicationBuilder(ProjectApplication.class)
+                .web(webApplicationType)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN",
+                        // one client offering the whole load would only measure the rate limit
+                        "--employee.rate-limit.enabled=false");
+    }
+
+    // inserts tableSize employees through the batch endpoint's service method and returns their ids.
+    // Names repeat in groups so the name prefixes below match a fixed share of the table at every size
+    static long[] seed(EmployeeService employeeService, int tableSize) {
+        long[] ids = new long[tableSize];
+        int seeded = 0;
+        while (seeded < tableSize) {
+            int batchSize = Math.min(SEED_BATCH_SIZE, tableSize - seeded);
+            List<Employee> batch = new ArrayList<>(batchSize);
+            for (int i = seeded; i < seeded + batchSize; i++) {
+                batch.add(employee(i));
+            }
+            for (BatchItemResult result : employeeService.saveEmployees(batch)) {
+                ids[seeded + result.getIndex()] = result.getId();
+            }
+            seeded += batchSize;
+        }
+        return ids;
+    }
+
+    static Employee employee(long number) {
+        return Employee.builder()
+                .firstName("Michael" + number % 37)
+                .lastName("Royf" + number % 100)
+                .email("employee" + number + "@benchmark.example")
+                .build();
+    }
+}
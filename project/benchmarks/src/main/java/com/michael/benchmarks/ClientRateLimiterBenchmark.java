@@ -0,0 +1,56 @@
+package com.michael.benchmarks;
+
+import com.michael.ratelimit.ClientRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// cost the rate limit adds to every api/employees request, with 8 threads admitting requests of known clients;
+// "oneClient" is the worst case, every thread contending for the same bucket
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ClientRateLimiterBenchmark {
+    @Param({"10000"})
+    private int clients;
+
+    private ClientRateLimiter limiter;
+    private String[] addresses;
+
+    @Setup
+    public void setup() {
+        // a budget no benchmark thread exhausts, so every call takes the admitting path
+        limiter = new ClientRateLimiter(1e9, 1_000_000, clients, Duration.ofMinutes(1));
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return limiter.tryAcquire(addresses[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    @Benchmark
+    public long oneClient() {
+        return limiter.tryAcquire(addresses[0]);
+    }
+}
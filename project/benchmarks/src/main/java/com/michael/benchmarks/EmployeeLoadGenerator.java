@@ -0,0 +1,254 @@
+package com.michael.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.benchmarks.LoadOptions.Operation;
+import com.michael.model.Employee;
+import com.michael.service.EmployeeService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// open-model load test of api/employees: boots the application on an in-memory H2 database, seeds it and sends
+// requests at a fixed arrival rate, whether or not earlier ones have been answered. Latency is measured from the
+// moment a request was due, not from when it was sent, so a stalled server is not hidden by a stalled client
+// (coordinated omission). Results are printed and written as .hgrm percentile files, one per operation
+public class EmployeeLoadGenerator {
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadOptions options;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final IdPool ids = new IdPool();
+    private final AtomicLong nextEmployee = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private URI baseUri;
+
+    private EmployeeLoadGenerator(LoadOptions options) {
+        this.options = options;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        new EmployeeLoadGenerator(LoadOptions.parse(args)).run();
+    }
+
+    private void run() throws IOException {
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startWebServer("load")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUri = URI.create("http://localhost:" + port + "/api/employees");
+            for (long id : BenchmarkApplication.seed(context.getBean(EmployeeService.class), options.employees)) {
+                ids.add(id);
+            }
+            nextEmployee.set(options.employees);
+
+            long startNanos = System.nanoTime();
+            long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+            long endNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+            drive(startNanos, measureFromNanos, endNanos);
+            drain();
+            report();
+        }
+    }
+
+    // request i is due at start + i / rate; when the loop falls behind it catches up in a burst
+    private void drive(long startNanos, long measureFromNanos, long endNanos) {
+        for (long i = 0; ; i++) {
+            long intendedNanos = startNanos + i * TimeUnit.SECONDS.toNanos(1) / options.rate;
+            if (intendedNanos >= endNanos) {
+                return;
+            }
+            long waitNanos = intendedNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            send(options.nextOperation(), intendedNanos, intendedNanos >= measureFromNanos);
+        }
+    }
+
+    private void send(Operation operation, long intendedNanos, boolean measured) {
+        Long id = null;
+        if (operation == Operation.GET || operation == Operation.PUT) {
+            id = ids.random();
+        } else if (operation == Operation.DELETE) {
+            id = ids.removeRandom();
+        }
+        if (id == null && operation != Operation.POST && operation != Operation.LIST) {
+            // every seeded employee was deleted; the slot is still used, so the arrival rate stays the same
+            operation = Operation.LIST;
+        }
+
+        Operation sent = operation;
+        long sentNanos = System.nanoTime();
+        inFlight.incrementAndGet();
+        client.sendAsync(request(operation, id), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long doneNanos = System.nanoTime();
+                    boolean ok = error == null && response.statusCode() < 300;
+                    if (measured) {
+                        stats.get(sent).record(doneNanos - intendedNanos, doneNanos - sentNanos, ok);
+                    }
+                    if (ok && sent == Operation.POST) {
+                        ids.add(createdId(response.body()));
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private HttpRequest request(Operation operation, Long id) {
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(REQUEST_TIMEOUT);
+        switch (operation) {
+            case POST:
+                return request.uri(baseUri)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json(BenchmarkApplication.employee(nextEmployee.getAndIncrement()))))
+                        .build();
+            case GET:
+                return request.uri(URI.create(baseUri + "/" + id)).GET().build();
+            case PUT:
+                // an email derived from the id, so concurrent updates never collide on the unique constraint
+                Employee changes = Employee.builder()
+                        .firstName("Updated")
+                        .lastName("Employee" + id)
+                        .email("updated" + id + "@benchmark.example")
+                        .build();
+                return request.uri(URI.create(baseUri + "/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(json(changes)))
+                        .build();
+            case DELETE:
+                return request.uri(URI.create(baseUri + "/" + id)).DELETE().build();
+            default:
+                return request.uri(URI.create(baseUri + "?limit=50")).GET().build();
+        }
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private void report() throws IOException {
+        Files.createDirectories(options.output);
+        System.out.printf("%n%d req/s offered for %d s after %d s warmup, %d employees seeded, %d requests unanswered%n",
+                options.rate, options.durationSeconds, options.warmupSeconds, options.employees, inFlight.get());
+        System.out.printf("%-8s %9s %7s %10s %9s %9s %9s %9s %9s %14s%n", "op", "requests", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "p99 uncorr ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram corrected = entry.getValue().corrected.getIntervalHistogram();
+            Histogram uncorrected = entry.getValue().uncorrected.getIntervalHistogram();
+            long errors = entry.getValue().errors.sum();
+            printRow(entry.getKey().name(), corrected, errors, uncorrected.getValueAtPercentile(99));
+            writePercentiles(entry.getKey().name().toLowerCase(Locale.ROOT), corrected);
+            total.add(corrected);
+            totalErrors += errors;
+        }
+        printRow("all", total, totalErrors, -1);
+        writePercentiles("all", total);
+        System.out.printf("percentile distributions written to %s%n", options.output.toAbsolutePath());
+    }
+
+    private void printRow(String name, Histogram histogram, long errors, long uncorrectedP99Micros) {
+        System.out.printf("%-8s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %14s%n", name,
+                histogram.getTotalCount(), errors, (double) histogram.getTotalCount() / options.durationSeconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                uncorrectedP99Micros < 0 ? "" : String.format("%.2f", millis(uncorrectedP99Micros)));
+    }
+
+    private void writePercentiles(String name, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(options.output.resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private String json(Employee employee) {
+        try {
+            return objectMapper.writeValueAsString(employee);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long createdId(String body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    // latencies in microseconds: from the intended send time (corrected) and from the actual one
+    private static final class OperationStats {
+        private final Recorder corrected = new Recorder(3);
+        private final Recorder uncorrected = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+
+        private void record(long correctedNanos, long uncorrectedNanos, boolean ok) {
+            corrected.recordValue(TimeUnit.NANOSECONDS.toMicros(correctedNanos));
+            uncorrected.recordValue(TimeUnit.NANOSECONDS.toMicros(uncorrectedNanos));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+    }
+
+    // ids of employees that should exist; deletes take their id out before they are sent
+    private static final class IdPool {
+        private final List<Long> ids = new ArrayList<>();
+
+        private synchronized void add(long id) {
+            ids.add(id);
+        }
+
+        private synchronized Long random() {
+            return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        private synchronized Long removeRandom() {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            Long id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
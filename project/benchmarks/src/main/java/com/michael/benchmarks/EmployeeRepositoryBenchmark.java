@@ -0,0 +1,82 @@
+package com.michael.benchmarks;
+
+import com.michael.dto.EmployeeField;
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import com.michael.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// the name search variants: whole entities or a sparse column set, by last name prefix alone or by both names.
+// A last name prefix matches about 1% of the table, the first name prefix narrows that down further
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeRepositoryBenchmark {
+    private static final String LAST_NAME = "Royf42";
+    private static final String FIRST_NAME = "Michael1";
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 50, Sort.by("lastName", "firstName", "id"));
+    private static final Set<EmployeeField> FIELDS = EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL);
+
+    @Param({"1000", "10000", "100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start("repository-" + tableSize);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        BenchmarkApplication.seed(context.getBean(EmployeeService.class), tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<Employee> entitiesByLastName() {
+        return employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(LAST_NAME, "", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<Employee> entitiesByLastAndFirstName() {
+        return employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(LAST_NAME, FIRST_NAME, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<Map<String, Object>> fieldsByLastName() {
+        return employeeRepository.findFieldsByNamePrefix(LAST_NAME, "", FIELDS, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<Map<String, Object>> fieldsByLastAndFirstName() {
+        return employeeRepository.findFieldsByNamePrefix(LAST_NAME, FIRST_NAME, FIELDS, FIRST_PAGE);
+    }
+}
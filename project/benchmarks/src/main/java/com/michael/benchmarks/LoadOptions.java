@@ -0,0 +1,78 @@
+package com.michael.benchmarks;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// name=value arguments of EmployeeLoadGenerator, e.g. rate=500 duration=60 mix=post:10,get:60,list:20,put:5,delete:5
+final class LoadOptions {
+    enum Operation {
+        POST, GET, LIST, PUT, DELETE
+    }
+
+    private static final String DEFAULT_MIX = "post:10,get:60,list:20,put:5,delete:5";
+
+    final int rate;
+    final int durationSeconds;
+    final int warmupSeconds;
+    final int employees;
+    final Path output;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private LoadOptions(Map<String, String> values) {
+        rate = Integer.parseInt(values.getOrDefault("rate", "200"));
+        durationSeconds = Integer.parseInt(values.getOrDefault("duration", "30"));
+        warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "5"));
+        employees = Integer.parseInt(values.getOrDefault("employees", "10000"));
+        output = Path.of(values.getOrDefault("output", "load-results"));
+        if (rate < 1 || durationSeconds < 1 || warmupSeconds < 0 || employees < 0) {
+            throw new IllegalArgumentException("rate and duration must be positive, warmup and employees not negative");
+        }
+
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : values.getOrDefault("mix", DEFAULT_MIX).split(",")) {
+            String[] weight = entry.split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("mix entries look like get:60, not " + entry);
+            }
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+        }
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("the mix needs at least one positive weight");
+        }
+    }
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("arguments look like rate=500, not " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadOptions(values);
+    }
+
+    // draws the next operation according to the mix weights
+    Operation nextOperation() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("draw outside of the mix: " + draw);
+    }
+}
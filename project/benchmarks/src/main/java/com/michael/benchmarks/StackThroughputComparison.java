@@ -0,0 +1,151 @@
+package com.michael.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// closed-model throughput of GET api/employees?limit=20 on the servlet + JPA stack and on the WebFlux + R2DBC
+// stack, side by side on in-memory H2 with ten database connections each. The list endpoint is used because it
+// is not cached. Arguments are name=value: employees=200 warmup=1000 requests=5000 concurrency=256
+public class StackThroughputComparison {
+    private static final int POOL_SIZE = 10;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int employees;
+    private final int warmupRequests;
+    private final int requests;
+    private final int concurrency;
+
+    private StackThroughputComparison(Map<String, String> values) {
+        employees = Integer.parseInt(values.getOrDefault("employees", "200"));
+        warmupRequests = Integer.parseInt(values.getOrDefault("warmup", "1000"));
+        requests = Integer.parseInt(values.getOrDefault("requests", "5000"));
+        concurrency = Integer.parseInt(values.getOrDefault("concurrency", "256"));
+        if (employees < 0 || warmupRequests < 0 || requests < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("requests and concurrency must be positive, employees and warmup not negative");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("arguments look like requests=5000, not " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new StackThroughputComparison(values).run();
+    }
+
+    private void run() throws Exception {
+        Result servlet;
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startWebServer("throughput-servlet")) {
+            servlet = measure(context);
+        }
+        Result reactive;
+        try (ConfigurableApplicationContext context =
+                     BenchmarkApplication.startReactiveWebServer("throughput-reactive", POOL_SIZE)) {
+            reactive = measure(context);
+        }
+
+        System.out.printf("%nGET api/employees?limit=20, %d requests at concurrency %d after %d warmup, %d employees%n",
+                requests, concurrency, warmupRequests, employees);
+        System.out.printf("%-9s %7s %10s %9s %9s %9s %9s%n", "stack", "errors", "req/s", "p50 ms", "p99 ms",
+                "p99.9 ms", "max ms");
+        servlet.print("servlet");
+        reactive.print("reactive");
+    }
+
+    // seeded over HTTP, as the reactive stack has no EmployeeService to seed through
+    private Result measure(ConfigurableApplicationContext context) throws IOException, InterruptedException {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URI employeesUri = URI.create("http://localhost:" + port + "/api/employees");
+        for (int i = 0; i < employees; i++) {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(employeesUri)
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(BenchmarkApplication.employee(i))))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding employee " + i + " answered " + response.statusCode());
+            }
+        }
+
+        HttpRequest list = HttpRequest.newBuilder(URI.create(employeesUri + "?limit=20"))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        load(list, warmupRequests, new Result());
+        Result result = new Result();
+        long start = System.nanoTime();
+        load(list, requests, result);
+        result.seconds = (System.nanoTime() - start) / 1e9;
+        return result;
+    }
+
+    // at most concurrency requests are outstanding; the next one goes out as soon as one is answered
+    private void load(HttpRequest request, int count, Result result) throws InterruptedException {
+        Semaphore slots = new Semaphore(concurrency);
+        for (int i = 0; i < count; i++) {
+            slots.acquire();
+            long sentNanos = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        result.record(System.nanoTime() - sentNanos, error == null && response.statusCode() == 200);
+                        slots.release();
+                    });
+        }
+        if (!slots.tryAcquire(concurrency, REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Requests still unanswered after " + REQUEST_TIMEOUT);
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // latencies in microseconds from send to response
+    private static final class Result {
+        private final Histogram latencies = new Histogram(3);
+        private final LongAdder errors = new LongAdder();
+        private double seconds;
+
+        private synchronized void record(long nanos, boolean ok) {
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        private synchronized void print(String stack) {
+            System.out.printf("%-9s %7d %10.0f %9.2f %9.2f %9.2f %9.2f%n", stack, errors.sum(),
+                    latencies.getTotalCount() / seconds,
+                    latencies.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                    latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                    latencies.getMaxValue() / MICROS_PER_MILLI);
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package com.michael;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.json.EmployeeJsonSerializer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 public class ProjectApplication {
+    // Employee is written without reflection, see EmployeeJsonSerializer
     @Bean
     public ObjectMapper objectMapper() {
-        return new ObjectMapper();
+        return new ObjectMapper().registerModule(EmployeeJsonSerializer.module());
     }
 
 
@@ -0,0 +1,326 @@
+package com.michael.changes;
+
+import com.michael.dto.EmployeeChange;
+import com.michael.dto.EmployeeField;
+import com.michael.event.EmployeeChangedEvent;
+import com.michael.model.Employee;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// committed employee changes as Server-Sent Events, so copies of the directory can follow it instead of
+// re-reading the table. The last buffer-size changes are kept in a ring, numbered by a sequence that restarts
+// with the application; event ids are "<epoch>-<sequence>", so a client reconnecting with Last-Event-ID gets
+// what it missed. Clients whose position is no longer in the ring, or from an earlier run, get a resync event
+// and have to reload GET api/employees. New clients start at the end of the feed: subscribe first, then load
+// the table, then apply the changes (versions tell which are already contained in the load; a partial change
+// without a version is applied on top of whatever was loaded)
+@Slf4j
+@Component
+public class EmployeeChangeFeed {
+    public static final String RESYNC_EVENT = "resync";
+    private static final long RECONNECT_MILLIS = 1000;
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long ABANDONED = Long.MIN_VALUE + 1;
+
+    @Value("${employee.changes.buffer-size:10000}")
+    private int bufferSize;
+    @Value("${employee.changes.max-subscribers:1000}")
+    private int maxSubscribers;
+    @Value("${employee.changes.sender-threads:2}")
+    private int senderThreads;
+    @Value("${employee.changes.heartbeat:15s}")
+    private Duration heartbeat;
+    @Value("${employee.changes.timeout:30m}")
+    private Duration timeout;
+    @Value("${employee.changes.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // guarded by this
+    private EmployeeChange[] ring;
+    private long lastSequence;
+    // core size is sender-threads plus one per abandoned send still stuck in its write
+    private ThreadPoolExecutor sender;
+    // heartbeats and the send timeout check
+    private ScheduledExecutorService timer;
+
+    @PostConstruct
+    public void start() {
+        ring = new EmployeeChange[bufferSize];
+        sender = new ThreadPoolExecutor(senderThreads, Integer.MAX_VALUE, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), daemonThreads("employee-changes-"));
+        timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("employee-changes-timer-"));
+        timer.scheduleAtFixedRate(() -> subscriptions.forEach(Subscription::scheduleHeartbeat),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        long check = Math.max(sendTimeout.toMillis() / 2, 1);
+        timer.scheduleAtFixedRate(this::abandonStalledSends, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    // clients reconnect on their own and resume with Last-Event-ID
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+        sender.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // a write blocks while the client does not read and its socket buffer is full, until the container's write
+    // timeout. Past send-timeout the subscription is dropped, the client reconnects with Last-Event-ID, and the
+    // stuck thread is replaced, so the other subscribers keep their sender-threads
+    private void abandonStalledSends() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.abandonIfStalled(now, sendTimeout.toNanos())) {
+                log.warn("Employee change subscriber did not take a write within {}, dropping it", sendTimeout);
+                resizeSender(1);
+            }
+        }
+    }
+
+    private synchronized void resizeSender(int delta) {
+        sender.setCorePoolSize(sender.getCorePoolSize() + delta);
+    }
+
+    // only committed changes are published, in commit order
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        synchronized (this) {
+            switch (event.getType()) {
+                case CREATED:
+                    event.getEmployees().forEach(employee -> append(EmployeeChange.Type.CREATED, employee));
+                    break;
+                case UPDATED:
+                    event.getEmployees().forEach(employee -> append(EmployeeChange.Type.UPDATED, employee));
+                    break;
+                case PATCHED:
+                    event.getEmployees().forEach(changes -> appendPatch(changes, event.getVersion()));
+                    break;
+                case DELETED:
+                    event.getIds().forEach(id -> append(EmployeeChange.builder().type(EmployeeChange.Type.DELETED).id(id)));
+                    break;
+            }
+        }
+        subscriptions.forEach(Subscription::schedule);
+    }
+
+    // empty when there are max-subscribers already
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeout.toMillis()));
+    }
+
+    Optional<SseEmitter> subscribe(String lastEventId, SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return Optional.empty();
+        }
+        Subscription subscription = new Subscription(emitter);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        try {
+            // sent right away, so the client sees the stream open before the first change
+            emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("employee changes"));
+        } catch (IOException e) {
+            subscription.close();
+            return Optional.of(emitter);
+        }
+        synchronized (this) {
+            subscription.lastSent = lastEventId == null ? lastSequence : resumeFrom(lastEventId);
+            subscriptions.add(subscription);
+        }
+        subscription.schedule();
+        return Optional.of(emitter);
+    }
+
+    // called with the lock held
+    private void append(EmployeeChange.Type type, Employee employee) {
+        append(EmployeeChange.builder()
+                .type(type)
+                .id(employee.getId())
+                .employee(employee)
+                .version(employee.getVersion()));
+    }
+
+    // called with the lock held; the event holds the id and the changed fields only
+    private void appendPatch(Employee patch, Long version) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (patch.getFirstName() != null) {
+            changes.put(EmployeeField.FIRST_NAME.getAttribute(), patch.getFirstName());
+        }
+        if (patch.getLastName() != null) {
+            changes.put(EmployeeField.LAST_NAME.getAttribute(), patch.getLastName());
+        }
+        if (patch.getEmail() != null) {
+            changes.put(EmployeeField.EMAIL.getAttribute(), patch.getEmail());
+        }
+        append(EmployeeChange.builder()
+                .type(EmployeeChange.Type.UPDATED)
+                .id(patch.getId())
+                .partial(true)
+                .changes(changes)
+                .version(version));
+    }
+
+    // called with the lock held
+    private void append(EmployeeChange.EmployeeChangeBuilder change) {
+        long sequence = ++lastSequence;
+        ring[(int) (sequence % ring.length)] = change.sequence(sequence).build();
+    }
+
+    // the sequence after which the client continues; -1 when it cannot, because the id is from an earlier run
+    // or was never issued
+    private long resumeFrom(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+            return sequence >= 0 && sequence <= lastSequence ? sequence : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // the changes after the given sequence, or null when some of them already left the ring
+    private synchronized List<EmployeeChange> changesAfter(long sequence) {
+        if (sequence < 0 || lastSequence - sequence > ring.length) {
+            return null;
+        }
+        List<EmployeeChange> changes = new ArrayList<>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            changes.add(ring[(int) (next % ring.length)]);
+        }
+        return changes;
+    }
+
+    // sends happen on the sender threads, one at a time per subscription, so a slow client delays
+    // only itself; if it falls out of the ring meanwhile it is told to resync, if one write takes longer than
+    // send-timeout it is dropped
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // System.nanoTime() when the running write began, or IDLE, or ABANDONED
+        private final AtomicLong writeStarted = new AtomicLong(IDLE);
+        // guarded by this subscription
+        private long lastSent;
+
+        private Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void schedule() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                sender.execute(this::send);
+            }
+        }
+
+        private void scheduleHeartbeat() {
+            heartbeatDue.set(true);
+            schedule();
+        }
+
+        private synchronized void send() {
+            scheduled.set(false);
+            if (closed.get()) {
+                return;
+            }
+            try {
+                List<EmployeeChange> changes = changesAfter(lastSent);
+                if (changes == null) {
+                    write(SseEmitter.event().name(RESYNC_EVENT).data("Reload api/employees and subscribe again"));
+                    emitter.complete();
+                    close();
+                    return;
+                }
+                for (EmployeeChange change : changes) {
+                    if (closed.get()) {
+                        return;
+                    }
+                    write(SseEmitter.event()
+                            .id(epoch + "-" + change.getSequence())
+                            .name(change.getType().name().toLowerCase(Locale.ROOT))
+                            .data(change, MediaType.APPLICATION_JSON));
+                    lastSent = change.getSequence();
+                }
+                if (heartbeatDue.getAndSet(false) && changes.isEmpty()) {
+                    write(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away; the container completes the emitter
+                log.debug("Employee change subscriber gone: {}", e.getMessage());
+                close();
+            }
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+            writeStarted.set(System.nanoTime());
+            try {
+                emitter.send(event);
+            } finally {
+                if (writeStarted.getAndSet(IDLE) == ABANDONED) {
+                    // this thread was replaced while it was stuck
+                    resizeSender(-1);
+                }
+            }
+        }
+
+        // true when the running write began more than timeout ago and was given up on now. The emitter cannot be
+        // completed from here, its lock is held by the write, which ends with the container's write timeout
+        private boolean abandonIfStalled(long now, long timeout) {
+            long started = writeStarted.get();
+            if (started == IDLE || started == ABANDONED || now - started <= timeout
+                    || !writeStarted.compareAndSet(started, ABANDONED)) {
+                return false;
+            }
+            close();
+            return true;
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.michael.config;
+
+import com.michael.routing.ReadYourWrites;
+import com.michael.sql.SqlStatementStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// separate, bounded executors for employee reads and writes, so a burst of bulk writes cannot starve reads.
+// A full queue rejects the task at once instead of letting requests pile up
+@Configuration
+@ConditionalOnProperty(name = "employee.async.enabled", havingValue = "true")
+public class AsyncConfig {
+    public static final String READ_EXECUTOR = "employeeReadExecutor";
+    public static final String WRITE_EXECUTOR = "employeeWriteExecutor";
+
+    @Bean(READ_EXECUTOR)
+    public ThreadPoolTaskExecutor employeeReadExecutor(@Value("${employee.async.read.pool-size:8}") int poolSize,
+                                                       @Value("${employee.async.read.queue-capacity:100}") int queueCapacity) {
+        return bulkhead("employee-read-", poolSize, queueCapacity);
+    }
+
+    @Bean(WRITE_EXECUTOR)
+    public ThreadPoolTaskExecutor employeeWriteExecutor(@Value("${employee.async.write.pool-size:2}") int poolSize,
+                                                        @Value("${employee.async.write.queue-capacity:50}") int queueCapacity) {
+        return bulkhead("employee-write-", poolSize, queueCapacity);
+    }
+
+    // fixed size: with a bounded queue, threads above the core size would only be created once the queue is full
+    private static ThreadPoolTaskExecutor bulkhead(String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        // statements run by the worker still count towards the request that submitted it, and still read
+        // from the primary when that request is pinned to it
+        executor.setTaskDecorator(task -> ReadYourWrites.propagate(SqlStatementStats.propagate(task)));
+        return executor;
+    }
+}
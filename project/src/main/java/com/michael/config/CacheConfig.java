@@ -0,0 +1,61 @@
+package com.michael.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// bounded read-through cache for single employees; hit/miss/eviction counts are published by actuator as cache.* metrics
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String EMPLOYEES = "employees";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${employee.cache.max-size:10000}") long maxSize,
+                                     @Value("${employee.cache.ttl-seconds:600}") long ttlSeconds,
+                                     @Value("${employee.cache.negative-ttl-seconds:5}") long negativeTtlSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EmployeeExpiry(TimeUnit.SECONDS.toNanos(ttlSeconds),
+                        TimeUnit.SECONDS.toNanos(negativeTtlSeconds)))
+                .recordStats());
+        cacheManager.setCacheNames(List.of(EMPLOYEES));
+        return cacheManager;
+    }
+
+    // misses are stored as NullValue and expire much sooner than real employees
+    private static class EmployeeExpiry implements Expiry<Object, Object> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        EmployeeExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return value instanceof NullValue ? negativeTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
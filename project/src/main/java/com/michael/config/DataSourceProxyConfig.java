@@ -0,0 +1,33 @@
+package com.michael.config;
+
+import com.michael.sql.SqlStatementListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// routes every JDBC statement through SqlStatementListener. The pool stays reachable through unwrap(),
+// so Hikari pool metrics are still bound
+@Configuration
+public class DataSourceProxyConfig {
+
+    // static and lazy about the listener, so registering the post processor does not initialize other beans early
+    @Bean
+    public static BeanPostProcessor sqlStatementDataSourceProxy(ObjectProvider<SqlStatementListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                        .listener(listener.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.michael.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.idempotency.IdempotencyStore;
+import com.michael.idempotency.IdempotentRequests;
+import com.michael.idempotency.InMemoryIdempotencyStore;
+import com.michael.idempotency.JpaIdempotencyStore;
+import com.michael.ratelimit.ClientKeyResolver;
+import com.michael.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.time.Clock;
+
+// Idempotency-Key handling of the employee writes. The memory store deduplicates retries that reach the same
+// instance; the database store (employee.idempotency.store=database) those that reach any instance. Keys are
+// scoped by client, so two clients picking the same key neither share nor block each other's responses
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    // the rate limit's client key; it is also needed with the rate limit disabled, so it is declared here
+    @Bean
+    public ClientKeyResolver clientKeyResolver(@Value("${employee.rate-limit.client-header:}") String clientHeader) {
+        return new ClientKeyResolver(StringUtils.hasText(clientHeader) ? clientHeader : null);
+    }
+
+    @Bean
+    public IdempotentRequests idempotentRequests(IdempotencyProperties properties, ObjectMapper objectMapper,
+                                                 ObjectProvider<IdempotencyRecordRepository> repository) {
+        Clock clock = Clock.systemUTC();
+        IdempotencyStore store;
+        switch (properties.getStore()) {
+            case DATABASE:
+                store = new JpaIdempotencyStore(repository.getObject(), properties.getPurgeInterval(), clock);
+                break;
+            default:
+                store = new InMemoryIdempotencyStore(properties.getMaxKeys(), clock);
+        }
+        return new IdempotentRequests(store, objectMapper, properties.getTtl(), properties.getInProgressTimeout(),
+                properties.getWaitTimeout(), clock);
+    }
+}
@@ -0,0 +1,26 @@
+package com.michael.config;
+
+import com.michael.idempotency.IdempotencyStoreType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.idempotency")
+public class IdempotencyProperties {
+    private IdempotencyStoreType store = IdempotencyStoreType.MEMORY;
+    // how long a completed response is replayed
+    private Duration ttl = Duration.ofHours(24);
+    // keys kept by the memory store
+    private long maxKeys = 100_000;
+    // after this a key whose request never completed (its instance died) can be used again; running requests
+    // renew their claim three times per timeout
+    private Duration inProgressTimeout = Duration.ofMinutes(1);
+    // how long a retry waits for the first request before it is answered 409
+    private Duration waitTimeout = Duration.ofSeconds(10);
+    // how often the database store deletes expired keys
+    private Duration purgeInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,39 @@
+package com.michael.config;
+
+import com.michael.ratelimit.ClientKeyResolver;
+import com.michael.ratelimit.ClientRateLimiter;
+import com.michael.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// the rate limit runs first, so rejected requests cost no SQL accounting, routing or controller work
+@Configuration
+@ConditionalOnProperty(name = "employee.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   ClientKeyResolver clientKeyResolver,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        RateLimitFilter filter = new RateLimitFilter(
+                limiter(properties.getRead(), properties), limiter(properties.getWrite(), properties),
+                clientKeyResolver, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static ClientRateLimiter limiter(RateLimitProperties.Budget budget, RateLimitProperties properties) {
+        return new ClientRateLimiter(budget.getRate(), budget.getBurst(), properties.getMaxClients(),
+                properties.getIdleTimeout());
+    }
+}
@@ -0,0 +1,38 @@
+package com.michael.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Budget read = new Budget(100, 200);
+    private Budget write = new Budget(20, 50);
+    // clients tracked per budget; beyond that the least recently seen are forgotten
+    private int maxClients = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(1);
+    // request header naming the client, e.g. an API key or user id set by a trusted gateway; unset, requests
+    // without it, or with an empty one are keyed by remote address. Also scopes Idempotency-Keys
+    private String clientHeader;
+
+    // requests per second per client, and how many of them may arrive at once
+    @Getter
+    @Setter
+    public static class Budget {
+        private double rate;
+        private int burst;
+
+        public Budget() {
+        }
+
+        public Budget(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.michael.config;
+
+import com.michael.routing.ReplicaSelection;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee.datasource")
+public class ReplicaDataSourceProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+    // how long a client that wrote keeps reading from the primary
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+    // username and password default to the primary's
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
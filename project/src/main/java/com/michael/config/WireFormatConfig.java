@@ -0,0 +1,40 @@
+package com.michael.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.michael.json.EmployeeJsonSerializer;
+import com.michael.wire.EmployeeProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// binary bodies for service-to-service callers, chosen with Accept / Content-Type: application/cbor,
+// application/x-jackson-smile or application/x-protobuf. Spring MVC registers CBOR and Smile itself once their
+// Jackson dataformats are present; these beans replace those defaults in place, after JSON, so JSON stays the
+// answer to Accept: */*. Protobuf is appended at the very end for the same reason
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(
+                new ObjectMapper(new CBORFactory()).registerModule(EmployeeJsonSerializer.module()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(
+                new ObjectMapper(new SmileFactory()).registerModule(EmployeeJsonSerializer.module()));
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new EmployeeProtobufHttpMessageConverter());
+    }
+}
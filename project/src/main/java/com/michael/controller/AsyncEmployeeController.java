@@ -0,0 +1,203 @@
+package com.michael.controller;
+
+import com.michael.config.AsyncConfig;
+import com.michael.dto.BatchItemResult;
+import com.michael.dto.EmployeeField;
+import com.michael.idempotency.IdempotentRequests;
+import com.michael.model.Employee;
+import com.michael.ratelimit.ClientKeyResolver;
+import com.michael.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// same API as EmployeeController, but the Tomcat worker is released while the database call runs on the
+// read or write bulkhead. Requests are validated before they take a slot, and a full bulkhead answers 503
+@RestController
+@RequestMapping("api/employees")
+@ConditionalOnProperty(name = "employee.async.enabled", havingValue = "true")
+public class AsyncEmployeeController {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    @Qualifier(AsyncConfig.READ_EXECUTOR)
+    private ThreadPoolTaskExecutor readExecutor;
+
+    @Autowired
+    @Qualifier(AsyncConfig.WRITE_EXECUTOR)
+    private ThreadPoolTaskExecutor writeExecutor;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private ClientKeyResolver clientKeyResolver;
+
+    // a retry waiting for the first request with its Idempotency-Key holds a write slot meanwhile
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Employee>> createEmployee(
+            @RequestBody Employee employee,
+            @RequestHeader(value = IdempotentRequests.KEY_HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request) {
+        // resolved on the request thread, the write runs on the write executor
+        String client = clientKeyResolver.resolve(request);
+        return write(() -> idempotentRequests.execute(client, idempotencyKey, Employee.class,
+                () -> new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED),
+                "POST", employee));
+    }
+
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<List<BatchItemResult>>> createEmployees(@RequestBody List<Employee> employees) {
+        if (!EmployeeRequests.isValidBatch(employees)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return write(() -> new ResponseEntity<>(employeeService.saveEmployees(employees), HttpStatus.OK));
+    }
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees(@RequestParam(required = false) String after,
+                                                                             @RequestParam(defaultValue = "50") int limit) {
+        Optional<Long> afterId = EmployeeRequests.decodeAfter(after);
+        if (!EmployeeRequests.isValidLimit(limit) || afterId.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return read(() -> EmployeeRequests.keysetPage(employeeService.getEmployeesAfter(afterId.get(), limit)));
+    }
+
+    @GetMapping(params = "fields")
+    public CompletableFuture<ResponseEntity<List<Map<String, Object>>>> getAllEmployeeFields(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam String fields) {
+        Optional<Long> afterId = EmployeeRequests.decodeAfter(after);
+        Optional<Set<EmployeeField>> selectedFields = EmployeeField.parse(fields);
+        if (!EmployeeRequests.isValidLimit(limit) || afterId.isEmpty() || selectedFields.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return read(() -> EmployeeRequests.keysetFieldsPage(
+                employeeService.getEmployeeFieldsAfter(afterId.get(), limit, selectedFields.get())));
+    }
+
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<List<Employee>>> searchEmployees(@RequestParam(required = false) String firstName,
+                                                                             @RequestParam(required = false) String lastName,
+                                                                             @RequestParam(defaultValue = "0") int page,
+                                                                             @RequestParam(defaultValue = "50") int size) {
+        if (!EmployeeRequests.isValidSearch(firstName, lastName, page, size)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return read(() -> EmployeeRequests.numberedPage(
+                employeeService.searchEmployees(firstName, lastName, page, size), page));
+    }
+
+    @GetMapping(value = "/search", params = "fields")
+    public CompletableFuture<ResponseEntity<List<Map<String, Object>>>> searchEmployeeFields(
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam String fields) {
+        Optional<Set<EmployeeField>> selectedFields = EmployeeField.parse(fields);
+        if (!EmployeeRequests.isValidSearch(firstName, lastName, page, size) || selectedFields.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return read(() -> EmployeeRequests.numberedPage(
+                employeeService.searchEmployeeFields(firstName, lastName, page, size, selectedFields.get()), page));
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeByID(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return read(() -> EmployeeRequests.getEmployee(employeeService, id, ifNoneMatch));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getEmployeeFieldsByID(@PathVariable Long id,
+                                                                                       @RequestParam String fields) {
+        Optional<Set<EmployeeField>> selectedFields = EmployeeField.parse(fields);
+        if (selectedFields.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return read(() -> employeeService.getEmployeeFieldsById(id, selectedFields.get())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> updateEmployee(
+            @PathVariable Long id, @RequestBody Employee employee,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = IdempotentRequests.KEY_HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request) {
+        String client = clientKeyResolver.resolve(request);
+        return write(() -> idempotentRequests.execute(client, idempotencyKey, Employee.class,
+                () -> EmployeeRequests.updateEmployee(employeeService, id, employee, ifMatch),
+                "PUT", id, employee, ifMatch));
+    }
+
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Void>> patchEmployee(
+            @PathVariable long id, @RequestBody Employee changes,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!EmployeeRequests.isValidPatch(changes)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        if (EmployeeETag.isUnsatisfiable(ifMatch)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+        }
+        return write(() -> EmployeeRequests.patchEmployee(employeeService, id, changes, ifMatch));
+    }
+
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<String>> deleteEmployee(@PathVariable long id) {
+        return write(() -> EmployeeRequests.deleted(employeeService.deleteEmployee(id), id));
+    }
+
+    @DeleteMapping
+    public CompletableFuture<ResponseEntity<String>> deleteEmployees(@RequestParam Set<Long> ids) {
+        if (!EmployeeRequests.isValidBatch(ids)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return write(() -> EmployeeRequests.deleted(employeeService.deleteEmployees(ids), ids.size()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleVersionConflict(OptimisticLockingFailureException e) {
+        return new ResponseEntity<>("Employee was modified by another request", HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // the bulkhead is full: fail fast rather than queue behind work that is already late
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleBulkheadFull(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body("Too many concurrent employee requests");
+    }
+
+    private <T> CompletableFuture<T> read(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, readExecutor);
+    }
+
+    private <T> CompletableFuture<T> write(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, writeExecutor);
+    }
+}
@@ -0,0 +1,36 @@
+package com.michael.controller;
+
+import com.michael.changes.EmployeeChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// change feed of the employee directory; the stream is fed from memory, so it is served the same way in both
+// controller modes and holds no database connection
+@RestController
+@RequestMapping("api/employees")
+public class EmployeeChangesController {
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Autowired
+    private EmployeeChangeFeed changeFeed;
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId)
+                .map(emitter -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .build());
+    }
+}
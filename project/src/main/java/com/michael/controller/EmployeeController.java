@@ -1,57 +1,178 @@
 package com.michael.controller;
 
+import com.michael.dto.BatchItemResult;
+import com.michael.dto.EmployeeField;
+import com.michael.idempotency.IdempotentRequests;
 import com.michael.model.Employee;
+import com.michael.ratelimit.ClientKeyResolver;
 import com.michael.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+// blocking endpoints, served on the Tomcat worker thread; replaced by AsyncEmployeeController when employee.async.enabled=true
 @RestController
 @RequestMapping("api/employees")
+@ConditionalOnProperty(name = "employee.async.enabled", havingValue = "false", matchIfMissing = true)
 public class EmployeeController {
+    public static final String NEXT_CURSOR_HEADER = EmployeeRequests.NEXT_CURSOR_HEADER;
+    public static final String NEXT_PAGE_HEADER = EmployeeRequests.NEXT_PAGE_HEADER;
+    private static final String RETRY_AFTER_SECONDS = "1";
 
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private ClientKeyResolver clientKeyResolver;
+
+    // a retry with the same Idempotency-Key gets the first response instead of creating the employee again
     @PostMapping
-    public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
-        return new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED);
+    public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee,
+                                                   @RequestHeader(value = IdempotentRequests.KEY_HEADER, required = false) String idempotencyKey,
+                                                   HttpServletRequest request) {
+        return idempotentRequests.execute(clientKeyResolver.resolve(request), idempotencyKey, Employee.class,
+                () -> new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED),
+                "POST", employee);
     }
 
+    // creates many employees in one request; the body reports the outcome of every item by its index
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createEmployees(@RequestBody List<Employee> employees) {
+        if (!EmployeeRequests.isValidBatch(employees)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return new ResponseEntity<>(employeeService.saveEmployees(employees), HttpStatus.OK);
+    }
 
+    // keyset pagination: pass the X-Next-Cursor value of the previous page as "after" to get the next one
     @GetMapping
-    public ResponseEntity<List<Employee>> getAllEmployees() {
-        return new ResponseEntity<>(employeeService.getAllEmployees(), HttpStatus.OK);
+    public ResponseEntity<List<Employee>> getAllEmployees(@RequestParam(required = false) String after,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        Optional<Long> afterId = EmployeeRequests.decodeAfter(after);
+        if (!EmployeeRequests.isValidLimit(limit) || afterId.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return EmployeeRequests.keysetPage(employeeService.getEmployeesAfter(afterId.get(), limit));
+    }
+
+    // sparse fieldset variant, e.g. ?fields=id,email; only those columns are read from the database
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllEmployeeFields(@RequestParam(required = false) String after,
+                                                                          @RequestParam(defaultValue = "50") int limit,
+                                                                          @RequestParam String fields) {
+        Optional<Long> afterId = EmployeeRequests.decodeAfter(after);
+        Optional<Set<EmployeeField>> selectedFields = EmployeeField.parse(fields);
+        if (!EmployeeRequests.isValidLimit(limit) || afterId.isEmpty() || selectedFields.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return EmployeeRequests.keysetFieldsPage(
+                employeeService.getEmployeeFieldsAfter(afterId.get(), limit, selectedFields.get()));
+    }
+
+    // prefix search on last and/or first name, paged without a count query
+    @GetMapping("/search")
+    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam(required = false) String firstName,
+                                                          @RequestParam(required = false) String lastName,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "50") int size) {
+        if (!EmployeeRequests.isValidSearch(firstName, lastName, page, size)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return EmployeeRequests.numberedPage(employeeService.searchEmployees(firstName, lastName, page, size), page);
+    }
+
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchEmployeeFields(@RequestParam(required = false) String firstName,
+                                                                          @RequestParam(required = false) String lastName,
+                                                                          @RequestParam(defaultValue = "0") int page,
+                                                                          @RequestParam(defaultValue = "50") int size,
+                                                                          @RequestParam String fields) {
+        Optional<Set<EmployeeField>> selectedFields = EmployeeField.parse(fields);
+        if (!EmployeeRequests.isValidSearch(firstName, lastName, page, size) || selectedFields.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return EmployeeRequests.numberedPage(
+                employeeService.searchEmployeeFields(firstName, lastName, page, size, selectedFields.get()), page);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployeeByID(@PathVariable Long id) {
-        return employeeService.getEmployeeById(id)
+    public ResponseEntity<Employee> getEmployeeByID(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return EmployeeRequests.getEmployee(employeeService, id, ifNoneMatch);
+    }
+
+    // a partial representation has no ETag of its own, so conditional requests are not applied here
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEmployeeFieldsByID(@PathVariable Long id, @RequestParam String fields) {
+        Optional<Set<EmployeeField>> selectedFields = EmployeeField.parse(fields);
+        if (selectedFields.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return employeeService.getEmployeeFieldsById(id, selectedFields.get())
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable Long id, @RequestBody Employee employee) {
+    public ResponseEntity<Employee> updateEmployee(@PathVariable Long id, @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestHeader(value = IdempotentRequests.KEY_HEADER, required = false) String idempotencyKey,
+                                                   HttpServletRequest request) {
+        return idempotentRequests.execute(clientKeyResolver.resolve(request), idempotencyKey, Employee.class,
+                () -> EmployeeRequests.updateEmployee(employeeService, id, employee, ifMatch),
+                "PUT", id, employee, ifMatch);
+    }
 
-        return employeeService.getEmployeeById(id)
-                .map(saveEmployee -> {
-                    saveEmployee.setFirstName(employee.getFirstName());
-                    saveEmployee.setLastName(employee.getLastName());
-                    saveEmployee.setEmail(employee.getEmail());
-                    Employee updatedEmployee = employeeService.updateEmployee(saveEmployee);
-                    return new ResponseEntity(updatedEmployee, HttpStatus.OK);
-                }).orElseGet(() -> ResponseEntity.notFound().build());
+    // only the fields present in the body are changed, with one UPDATE and no prior SELECT;
+    // an If-Match version becomes part of that UPDATE's WHERE clause
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable long id, @RequestBody Employee changes,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!EmployeeRequests.isValidPatch(changes)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return EmployeeRequests.patchEmployee(employeeService, id, changes, ifMatch);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable long id) {
-        employeeService.deleteEmployee(id);
-        return new ResponseEntity<>("Employee with id: " + id + " was deleted", HttpStatus.OK);
+        return EmployeeRequests.deleted(employeeService.deleteEmployee(id), id);
     }
 
+    // DELETE api/employees?ids=1,2,3 runs a single IN statement; unknown ids are simply not counted
+    @DeleteMapping
+    public ResponseEntity<String> deleteEmployees(@RequestParam Set<Long> ids) {
+        if (!EmployeeRequests.isValidBatch(ids)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return EmployeeRequests.deleted(employeeService.deleteEmployees(ids), ids.size());
+    }
+
+    // another request changed the employee between the client's read and this write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleVersionConflict(OptimisticLockingFailureException e) {
+        return new ResponseEntity<>("Employee was modified by another request", HttpStatus.PRECONDITION_FAILED);
+    }
 
+    // the write-behind queue is full
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleQueueFull(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body("Too many concurrent employee requests");
+    }
 }
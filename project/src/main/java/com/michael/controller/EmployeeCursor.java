@@ -0,0 +1,31 @@
+package com.michael.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+// opaque keyset cursor for the employee listing; clients only echo it back, so the encoding can change freely
+public final class EmployeeCursor {
+    private static final String PREFIX = "id:";
+
+    private EmployeeCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Optional<Long> decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                return Optional.empty();
+            }
+            long id = Long.parseLong(value.substring(PREFIX.length()));
+            return id < 0 ? Optional.empty() : Optional.of(id);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.michael.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// strong ETags derived from the employee version column, e.g. "3"
+final class EmployeeETag {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private EmployeeETag() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static boolean isAny(String header) {
+        return ANY.equals(header.trim());
+    }
+
+    // If-None-Match uses the weak comparison, so W/"3" matches version 3 as well
+    static boolean noneMatch(String ifNoneMatch, long version) {
+        if (isAny(ifNoneMatch)) {
+            return false;
+        }
+        String current = of(version);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith(WEAK_PREFIX)) {
+                candidate = candidate.substring(WEAK_PREFIX.length());
+            }
+            if (candidate.equals(current)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the versions an If-Match header pins a write to, in header order; empty when the header is absent or "*".
+    // If-Match uses the strong comparison, so weak or malformed entries of a list never match and are left out
+    static List<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || isAny(ifMatch)) {
+            return List.of();
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            version(tag).filter(version -> !versions.contains(version)).ifPresent(versions::add);
+        }
+        return versions;
+    }
+
+    // an If-Match that names no strong version can never match
+    static boolean isUnsatisfiable(String ifMatch) {
+        return ifMatch != null && !isAny(ifMatch) && expectedVersions(ifMatch).isEmpty();
+    }
+
+    // true when the header is absent or "*", or any entry of its list names the current version
+    static boolean matches(String ifMatch, long version) {
+        return ifMatch == null || isAny(ifMatch) || expectedVersions(ifMatch).contains(version);
+    }
+
+    // a single entity tag; empty unless it is a strong, non-negative version
+    private static Optional<Long> version(String entityTag) {
+        String tag = entityTag.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return Optional.empty();
+        }
+        try {
+            long version = Long.parseLong(tag.substring(1, tag.length() - 1));
+            return version < 0 ? Optional.empty() : Optional.of(version);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
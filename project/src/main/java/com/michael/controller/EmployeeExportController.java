@@ -0,0 +1,57 @@
+package com.michael.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.export.EmployeeExportWriter;
+import com.michael.export.ExportFormat;
+import com.michael.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+// the export writes straight to the servlet response, so it stays on the request thread in both controller modes
+@RestController
+@RequestMapping("api/employees")
+public class EmployeeExportController {
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // streams every row as it is read, so memory use does not grow with the table
+    @GetMapping("/export")
+    public void exportEmployees(@RequestParam(defaultValue = "ndjson") String format,
+                                HttpServletResponse response) throws IOException {
+        Optional<ExportFormat> exportFormat = ExportFormat.fromName(format);
+        if (exportFormat.isEmpty()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported export format: " + format);
+            return;
+        }
+
+        response.setContentType(exportFormat.get().getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + exportFormat.get().getFileName() + "\"");
+        try (EmployeeExportWriter writer = exportFormat.get().open(response.getOutputStream(), objectMapper)) {
+            employeeService.exportEmployees(employee -> {
+                try {
+                    writer.write(employee);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
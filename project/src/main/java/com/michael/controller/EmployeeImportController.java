@@ -0,0 +1,60 @@
+package com.michael.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.dto.ImportReport;
+import com.michael.importing.EmployeeImportSource;
+import com.michael.importing.EmployeeImporter;
+import com.michael.importing.ImportFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+// the import reads the request body while it arrives, so like the export it stays on the request thread
+// in both controller modes
+@RestController
+@RequestMapping("api/employees")
+public class EmployeeImportController {
+    @Autowired
+    private EmployeeImporter employeeImporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${employee.import.max-record-length:8192}")
+    private int maxRecordLength;
+
+    // POST the file as the body with Content-Type text/csv or application/x-ndjson; the report lists every
+    // line that was not imported (up to employee.import.max-reported-errors of them)
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportReport> importEmployees(@RequestHeader("Content-Type") MediaType contentType,
+                                                        HttpServletRequest request) throws IOException {
+        Optional<ImportFormat> format = ImportFormat.fromContentType(contentType);
+        if (format.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        Reader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+        EmployeeImportSource source;
+        try {
+            source = format.get().open(reader, objectMapper, maxRecordLength);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(employeeImporter.importEmployees(source));
+    }
+}
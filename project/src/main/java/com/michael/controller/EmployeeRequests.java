@@ -0,0 +1,163 @@
+package com.michael.controller;
+
+import com.michael.dto.EmployeeField;
+import com.michael.model.Employee;
+import com.michael.service.EmployeeService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// request validation and response shaping shared by the blocking and the async employee controllers
+final class EmployeeRequests {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NEXT_PAGE_HEADER = "X-Next-Page";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    private EmployeeRequests() {
+    }
+
+    // a missing cursor starts from the beginning; empty when the cursor is not one we issued
+    static Optional<Long> decodeAfter(String after) {
+        return after == null ? Optional.of(0L) : EmployeeCursor.decode(after);
+    }
+
+    static boolean isValidLimit(int limit) {
+        return limit >= 1 && limit <= MAX_PAGE_SIZE;
+    }
+
+    static boolean isValidBatch(Collection<?> items) {
+        return !items.isEmpty() && items.size() <= MAX_BATCH_SIZE;
+    }
+
+    static boolean isValidSearch(String firstName, String lastName, int page, int size) {
+        boolean noName = (firstName == null || firstName.isBlank()) && (lastName == null || lastName.isBlank());
+        return !noName && page >= 0 && isValidLimit(size);
+    }
+
+    static boolean isValidPatch(Employee changes) {
+        boolean noChanges = changes.getFirstName() == null && changes.getLastName() == null && changes.getEmail() == null;
+        return !noChanges && !isBlankValue(changes.getFirstName()) && !isBlankValue(changes.getLastName())
+                && !isBlankValue(changes.getEmail());
+    }
+
+    static ResponseEntity<List<Employee>> keysetPage(Slice<Employee> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            List<Employee> content = page.getContent();
+            headers.set(NEXT_CURSOR_HEADER, EmployeeCursor.encode(content.get(content.size() - 1).getId()));
+        }
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
+    static ResponseEntity<List<Map<String, Object>>> keysetFieldsPage(Slice<Map<String, Object>> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            List<Map<String, Object>> content = page.getContent();
+            long lastId = (Long) content.get(content.size() - 1).get(EmployeeField.ID.getAttribute());
+            headers.set(NEXT_CURSOR_HEADER, EmployeeCursor.encode(lastId));
+        }
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
+    static <T> ResponseEntity<List<T>> numberedPage(Slice<T> result, int page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (result.hasNext()) {
+            headers.set(NEXT_PAGE_HEADER, String.valueOf(page + 1));
+        }
+        return new ResponseEntity<>(result.getContent(), headers, HttpStatus.OK);
+    }
+
+    // answers If-None-Match from the version alone, so unchanged employees cost neither a row load nor a body
+    static ResponseEntity<Employee> getEmployee(EmployeeService employeeService, long id, String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = employeeService.getEmployeeVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!EmployeeETag.noneMatch(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EmployeeETag.of(version.get())).build();
+            }
+        }
+        return employeeService.getEmployeeById(id)
+                .map(employee -> ResponseEntity.ok().eTag(EmployeeETag.of(employee.getVersion())).body(employee))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    static ResponseEntity<Employee> updateEmployee(EmployeeService employeeService, long id, Employee employee,
+                                                   String ifMatch) {
+
+        // the loaded employee may be a shared cache entry, so the changes go into a fresh instance
+        return employeeService.getEmployeeById(id)
+                .map(saveEmployee -> {
+                    long expectedVersion = saveEmployee.getVersion();
+                    if (!EmployeeETag.matches(ifMatch, expectedVersion)) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+                    }
+                    Employee changedEmployee = Employee.builder()
+                            .id(saveEmployee.getId())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .version(expectedVersion)
+                            .build();
+                    Employee updatedEmployee = employeeService.updateEmployee(changedEmployee);
+                    return ResponseEntity.ok().eTag(EmployeeETag.of(updatedEmployee.getVersion())).body(updatedEmployee);
+                }).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // the PATCH UPDATE pins one version, so an If-Match list is tried entry by entry until one matches;
+    // only a stale last entry reaches the caller as a version conflict
+    static ResponseEntity<Void> patchEmployee(EmployeeService employeeService, long id, Employee changes,
+                                              String ifMatch) {
+        if (EmployeeETag.isUnsatisfiable(ifMatch)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        List<Long> expectedVersions = EmployeeETag.expectedVersions(ifMatch);
+        if (expectedVersions.isEmpty()) {
+            return patched(employeeService.patchEmployee(id, changes, null), null);
+        }
+        for (int i = 0; i < expectedVersions.size() - 1; i++) {
+            Long expectedVersion = expectedVersions.get(i);
+            try {
+                return patched(employeeService.patchEmployee(id, changes, expectedVersion), expectedVersion);
+            } catch (OptimisticLockingFailureException e) {
+                // the employee is at another version, maybe the next one listed
+            }
+        }
+        Long lastVersion = expectedVersions.get(expectedVersions.size() - 1);
+        return patched(employeeService.patchEmployee(id, changes, lastVersion), lastVersion);
+    }
+
+    static ResponseEntity<Void> patched(boolean found, Long expectedVersion) {
+        if (!found) {
+            return ResponseEntity.notFound().build();
+        }
+        return expectedVersion == null
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.ok().eTag(EmployeeETag.of(expectedVersion + 1)).build();
+    }
+
+    static ResponseEntity<String> deleted(boolean found, long id) {
+        if (!found) {
+            return ResponseEntity.notFound().build();
+        }
+        return new ResponseEntity<>("Employee with id: " + id + " was deleted", HttpStatus.OK);
+    }
+
+    static ResponseEntity<String> deleted(int deleted, int requested) {
+        return new ResponseEntity<>(deleted + " of " + requested + " employees were deleted", HttpStatus.OK);
+    }
+
+    // present but empty, which the not-null columns would otherwise accept
+    private static boolean isBlankValue(String value) {
+        return value != null && value.isBlank();
+    }
+}
@@ -0,0 +1,32 @@
+package com.michael.controller;
+
+import com.michael.model.Employee;
+import com.michael.search.EmployeeSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// type-ahead is answered from the in-memory index without touching the database, so it stays on the
+// request thread in both controller modes
+@RestController
+@RequestMapping("api/employees")
+public class EmployeeSuggestController {
+    private static final int MAX_SUGGESTIONS = 50;
+
+    @Autowired
+    private EmployeeSearchIndex searchIndex;
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Employee>> suggestEmployees(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "10") int limit) {
+        if (q.isBlank() || limit < 1 || limit > MAX_SUGGESTIONS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(searchIndex.suggest(q, limit));
+    }
+}
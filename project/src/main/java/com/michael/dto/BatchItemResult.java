@@ -0,0 +1,24 @@
+package com.michael.dto;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Builder
+public class BatchItemResult {
+    public enum Status {
+        CREATED, DUPLICATE, INVALID
+    }
+
+    // position of the item in the request body
+    private int index;
+
+    private String email;
+
+    private Status status;
+
+    private Long id;
+
+    private String message;
+}
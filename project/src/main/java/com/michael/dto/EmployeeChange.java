@@ -0,0 +1,40 @@
+package com.michael.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.michael.model.Employee;
+import lombok.*;
+
+import java.util.Map;
+
+// one entry of the api/employees/changes feed, about a single employee
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Builder
+public class EmployeeChange {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    // position in the feed; it restarts with the application, see EmployeeChangeFeed
+    private long sequence;
+
+    private Type type;
+
+    private Long id;
+
+    // CREATED and UPDATED: the employee after the change; absent for a partial update
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Employee employee;
+
+    private boolean partial;
+
+    // partial update: only the fields that changed, by name
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> changes;
+
+    // the version after the change; absent for a partial update that was not conditional, whose version the
+    // application never read
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+}
@@ -0,0 +1,50 @@
+package com.michael.dto;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+// the employee attributes a client may ask for with ?fields=
+public enum EmployeeField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email");
+
+    private final String attribute;
+
+    EmployeeField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    // parses "id,email"; the id is always selected since it identifies the row and drives paging.
+    // Empty when any name is unknown
+    public static Optional<Set<EmployeeField>> parse(String fields) {
+        Set<EmployeeField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Optional<EmployeeField> field = fromAttribute(trimmed);
+            if (field.isEmpty()) {
+                return Optional.empty();
+            }
+            result.add(field.get());
+        }
+        return Optional.of(result);
+    }
+
+    private static Optional<EmployeeField> fromAttribute(String attribute) {
+        for (EmployeeField field : values()) {
+            if (field.attribute.equals(attribute)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,14 @@
+package com.michael.dto;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Builder
+public class ImportLineError {
+    // line of the upload the record starts on, counting from 1 (the CSV header is line 1)
+    private long line;
+
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.michael.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Builder
+public class ImportReport {
+    private long records;
+
+    private long created;
+
+    private long failed;
+
+    // the first errors in upload order; errorsTruncated tells that failed counts more of them
+    private List<ImportLineError> errors;
+
+    private boolean errorsTruncated;
+}
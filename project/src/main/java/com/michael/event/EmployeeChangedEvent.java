@@ -0,0 +1,51 @@
+package com.michael.event;
+
+import com.michael.model.Employee;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// published by EmployeeServiceImpl after employees were written, so in-process views can follow the table
+// without polling it. Listeners of a transactional write only see the event once it committed
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class EmployeeChangedEvent {
+    public enum Type {
+        CREATED, UPDATED, PATCHED, DELETED
+    }
+
+    private final Type type;
+    // CREATED, UPDATED: the new state of every saved employee; PATCHED: the id and only the fields that changed
+    private final List<Employee> employees;
+    // DELETED: the ids of the rows that were removed
+    private final Collection<Long> ids;
+    // PATCHED: the version the patch gave the employee; null when it was not conditional, as the UPDATE does
+    // not read the row back
+    private final Long version;
+
+    public static EmployeeChangedEvent created(List<Employee> employees) {
+        return new EmployeeChangedEvent(Type.CREATED, employees, Collections.emptyList(), null);
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee) {
+        return new EmployeeChangedEvent(Type.UPDATED, List.of(employee), Collections.emptyList(), null);
+    }
+
+    public static EmployeeChangedEvent patched(long id, Employee changes, Long version) {
+        Employee patch = Employee.builder()
+                .id(id)
+                .firstName(changes.getFirstName())
+                .lastName(changes.getLastName())
+                .email(changes.getEmail())
+                .build();
+        return new EmployeeChangedEvent(Type.PATCHED, List.of(patch), Collections.emptyList(), version);
+    }
+
+    public static EmployeeChangedEvent deleted(Collection<Long> ids) {
+        return new EmployeeChangedEvent(Type.DELETED, Collections.emptyList(), ids, null);
+    }
+}
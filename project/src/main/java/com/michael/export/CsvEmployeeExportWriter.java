@@ -0,0 +1,63 @@
+package com.michael.export;
+
+import com.michael.model.Employee;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+class CsvEmployeeExportWriter implements EmployeeExportWriter {
+    static final String HEADER = "id,firstName,lastName,email";
+
+    private final Writer writer;
+    private boolean headerWritten;
+
+    CsvEmployeeExportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(Employee employee) throws IOException {
+        writeHeaderOnce();
+        writer.write(String.valueOf(employee.getId()));
+        writer.write(',');
+        writeField(employee.getFirstName());
+        writer.write(',');
+        writeField(employee.getLastName());
+        writer.write(',');
+        writeField(employee.getEmail());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        // an empty export still gets its header line
+        writeHeaderOnce();
+        writer.flush();
+    }
+
+    private void writeHeaderOnce() throws IOException {
+        if (!headerWritten) {
+            writer.write(HEADER);
+            writer.write("\r\n");
+            headerWritten = true;
+        }
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks and double embedded quotes
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
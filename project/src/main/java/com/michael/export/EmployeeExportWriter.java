@@ -0,0 +1,11 @@
+package com.michael.export;
+
+import com.michael.model.Employee;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// writes one employee at a time straight to the underlying stream; close() flushes but does not close that stream
+public interface EmployeeExportWriter extends Closeable {
+    void write(Employee employee) throws IOException;
+}
@@ -0,0 +1,47 @@
+package com.michael.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public EmployeeExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            return new NdjsonEmployeeExportWriter(out, objectMapper);
+        }
+    },
+    CSV("text/csv", "csv") {
+        @Override
+        public EmployeeExportWriter open(OutputStream out, ObjectMapper objectMapper) {
+            return new CsvEmployeeExportWriter(out);
+        }
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileName() {
+        return "employees." + extension;
+    }
+
+    public abstract EmployeeExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException;
+
+    public static Optional<ExportFormat> fromName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(name))
+                .findFirst();
+    }
+}
@@ -0,0 +1,30 @@
+package com.michael.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.model.Employee;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+class NdjsonEmployeeExportWriter implements EmployeeExportWriter {
+    private final JsonGenerator generator;
+
+    NdjsonEmployeeExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // lines are separated explicitly below instead of by the default root separator
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(Employee employee) throws IOException {
+        generator.writeObject(employee);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,20 @@
+package com.michael.idempotency;
+
+import java.time.Instant;
+import java.util.Optional;
+
+// Idempotency-Keys and the responses of the requests that used them; entries are forgotten once they expire
+public interface IdempotencyStore {
+    // takes the key for a request with this fingerprint until expiresAt; false when the key is already taken
+    boolean claim(String key, String fingerprint, Instant expiresAt);
+
+    // moves the expiry of a claim still in progress with this fingerprint; false when there is none
+    boolean renew(String key, String fingerprint, Instant expiresAt);
+
+    Optional<IdempotentResponse> find(String key);
+
+    void complete(String key, IdempotentResponse response, Instant expiresAt);
+
+    // gives up a claim whose request failed, so a retry with the key runs again
+    void release(String key);
+}
@@ -0,0 +1,5 @@
+package com.michael.idempotency;
+
+public enum IdempotencyStoreType {
+    MEMORY, DATABASE
+}
@@ -0,0 +1,222 @@
+package com.michael.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// runs a write at most once per Idempotency-Key: a retry with the key gets the stored response of the first
+// request, marked Idempotent-Replayed. Requests with a key that is in progress on this instance wait for it
+// without touching the store; on other instances they poll the store. A key reused for a different request
+// is answered 422, and a key still in progress after the wait timeout 409. While the first request runs its claim
+// is renewed, so only a claim whose instance died expires after the in-progress timeout. Keys belong to the client
+// that sent them: the same key from two clients names two requests
+@Slf4j
+public class IdempotentRequests implements AutoCloseable {
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Duration waitTimeout;
+    private final Clock clock;
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor renewals;
+
+    public IdempotentRequests(IdempotencyStore store, ObjectMapper objectMapper, Duration ttl,
+                              Duration inProgressTimeout, Duration waitTimeout, Clock clock) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.waitTimeout = waitTimeout;
+        this.clock = clock;
+        this.renewals = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "idempotency-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // a finished request takes its renewal out of the queue right away
+        renewals.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public void close() {
+        renewals.shutdownNow();
+    }
+
+    // client as resolved by ClientKeyResolver; request holds whatever makes two requests the same, e.g. method,
+    // path, body and preconditions
+    public <T> ResponseEntity<T> execute(String client, String idempotencyKey, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> write, Object... request) {
+        if (idempotencyKey == null) {
+            return write.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        String key = storedKey(client, idempotencyKey);
+        String fingerprint = fingerprint(request);
+        CompletableFuture<IdempotentResponse> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> first = inFlight.putIfAbsent(key, mine);
+        if (first != null) {
+            return replay(await(first, fingerprint), fingerprint, bodyType);
+        }
+        try {
+            IdempotentResponse stored = claimOrWait(key, fingerprint);
+            if (stored != null) {
+                mine.complete(stored);
+                return replay(stored, fingerprint, bodyType);
+            }
+            ResponseEntity<T> response;
+            ScheduledFuture<?> renewal = renewClaim(key, fingerprint);
+            try {
+                response = write.get();
+            } catch (RuntimeException | Error e) {
+                renewal.cancel(false);
+                store.release(key);
+                throw e;
+            }
+            renewal.cancel(false);
+            IdempotentResponse completed = IdempotentResponse.builder()
+                    .fingerprint(fingerprint)
+                    .status(response.getStatusCodeValue())
+                    .eTag(response.getHeaders().getETag())
+                    .body(response.hasBody() ? json(response.getBody()) : null)
+                    .build();
+            store.complete(key, completed, clock.instant().plus(ttl));
+            mine.complete(completed);
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // a digest of both, as client and key together may exceed the store's key length
+    static String storedKey(String client, String idempotencyKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((client + '\n' + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // three times per in-progress timeout, so one late renewal does not let the claim expire
+    private ScheduledFuture<?> renewClaim(String key, String fingerprint) {
+        long periodNanos = Math.max(inProgressTimeout.toNanos() / 3, 1);
+        return renewals.scheduleAtFixedRate(() -> {
+            try {
+                store.renew(key, fingerprint, clock.instant().plus(inProgressTimeout));
+            } catch (RuntimeException e) {
+                // the next period tries again
+                log.warn("Could not renew {} {}", KEY_HEADER, key, e);
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // null once this request holds the key, otherwise what the store has for it
+    private IdempotentResponse claimOrWait(String key, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            if (store.claim(key, fingerprint, clock.instant().plus(inProgressTimeout))) {
+                return null;
+            }
+            IdempotentResponse stored = store.find(key).orElse(null);
+            if (stored != null && (stored.isCompleted() || !stored.getFingerprint().equals(fingerprint))) {
+                return stored;
+            }
+            // in progress on another instance, or released or expired since the claim failed
+            if (System.nanoTime() - deadline > 0) {
+                return IdempotentResponse.inProgress(fingerprint);
+            }
+            sleep();
+        }
+    }
+
+    // the first request's failure is this request's failure too, handled by the same exception handlers
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> first, String fingerprint) {
+        try {
+            return first.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return IdempotentResponse.inProgress(fingerprint);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + KEY_HEADER, e);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotentResponse stored, String fingerprint, Class<T> bodyType) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        if (!stored.isCompleted()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(REPLAYED_HEADER, "true");
+        if (stored.getETag() != null) {
+            headers.setETag(stored.getETag());
+        }
+        try {
+            T body = stored.getBody() == null ? null : objectMapper.readValue(stored.getBody(), bodyType);
+            return ResponseEntity.status(stored.getStatus()).headers(headers).body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for " + KEY_HEADER, e);
+        }
+    }
+
+    private String fingerprint(Object[] request) {
+        return DigestUtils.md5DigestAsHex(json(Arrays.asList(request)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + KEY_HEADER, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.michael.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// what a store keeps per Idempotency-Key: the request it was first used with and, once that request
+// completed, its response. The body is kept as JSON, whatever format the first client asked for
+@AllArgsConstructor
+@Getter
+@Builder
+public class IdempotentResponse {
+    private String fingerprint;
+
+    // 0 while the first request is in progress
+    private int status;
+
+    private String eTag;
+
+    private String body;
+
+    public static IdempotentResponse inProgress(String fingerprint) {
+        return IdempotentResponse.builder().fingerprint(fingerprint).build();
+    }
+
+    public boolean isCompleted() {
+        return status != 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.michael.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+// keys of this instance only, at most maxKeys of them; the least recently used go first when it is full
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Clock clock;
+    private final Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(long maxKeys, Clock clock) {
+        this.clock = clock;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new EntryExpiry())
+                .build();
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint, Instant expiresAt) {
+        return entries.asMap().putIfAbsent(key, new Entry(IdempotentResponse.inProgress(fingerprint), expiresAt)) == null;
+    }
+
+    @Override
+    public boolean renew(String key, String fingerprint, Instant expiresAt) {
+        boolean[] renewed = new boolean[1];
+        entries.asMap().computeIfPresent(key, (k, entry) -> {
+            if (entry.response.isCompleted() || !entry.response.getFingerprint().equals(fingerprint)) {
+                return entry;
+            }
+            renewed[0] = true;
+            return new Entry(entry.response, expiresAt);
+        });
+        return renewed[0];
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        return Optional.ofNullable(entries.getIfPresent(key)).map(entry -> entry.response);
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response, Instant expiresAt) {
+        entries.put(key, new Entry(response, expiresAt));
+    }
+
+    @Override
+    public void release(String key) {
+        entries.asMap().computeIfPresent(key, (k, entry) -> entry.response.isCompleted() ? entry : null);
+    }
+
+    private static final class Entry {
+        private final IdempotentResponse response;
+        private final Instant expiresAt;
+
+        private Entry(IdempotentResponse response, Instant expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // every entry lives until its own expiresAt, whether it was created or replaced
+    private class EntryExpiry implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), entry.expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.michael.idempotency;
+
+import com.michael.model.IdempotencyRecord;
+import com.michael.repository.IdempotencyRecordRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// keys shared by all instances in the idempotency_keys table. The primary key decides which request claims a key;
+// expired rows are treated as absent and deleted in bulk at most once per purge interval
+public class JpaIdempotencyStore implements IdempotencyStore {
+    private final IdempotencyRecordRepository repository;
+    private final Clock clock;
+    private final long purgeIntervalMillis;
+    private final AtomicLong nextPurgeMillis = new AtomicLong();
+
+    public JpaIdempotencyStore(IdempotencyRecordRepository repository, Duration purgeInterval, Clock clock) {
+        this.repository = repository;
+        this.purgeIntervalMillis = purgeInterval.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint, Instant expiresAt) {
+        Instant now = clock.instant();
+        purgeExpired(now);
+        repository.deleteIfExpired(key, now);
+        try {
+            repository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .fingerprint(fingerprint)
+                    .expiresAt(expiresAt)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean renew(String key, String fingerprint, Instant expiresAt) {
+        return repository.renew(key, fingerprint, expiresAt) > 0;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        return repository.findById(key)
+                .filter(record -> record.getExpiresAt().isAfter(clock.instant()))
+                .map(record -> IdempotentResponse.builder()
+                        .fingerprint(record.getFingerprint())
+                        .status(record.getStatus() == null ? 0 : record.getStatus())
+                        .eTag(record.getETag())
+                        .body(record.getBody())
+                        .build());
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response, Instant expiresAt) {
+        repository.complete(key, response.getStatus(), response.getETag(), response.getBody(), expiresAt);
+    }
+
+    @Override
+    public void release(String key) {
+        repository.release(key);
+    }
+
+    // one thread at a time does the purge, the others skip it
+    private void purgeExpired(Instant now) {
+        long next = nextPurgeMillis.get();
+        if (now.toEpochMilli() >= next && nextPurgeMillis.compareAndSet(next, now.toEpochMilli() + purgeIntervalMillis)) {
+            repository.deleteExpired(now);
+        }
+    }
+}
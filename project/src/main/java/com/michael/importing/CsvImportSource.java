@@ -0,0 +1,93 @@
+package com.michael.importing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// RFC 4180 CSV with a header line naming the columns, in any order, e.g. the CSV export's
+// id,firstName,lastName,email. Unknown columns such as id are ignored
+class CsvImportSource implements EmployeeImportSource {
+    private final ImportRecordReader records;
+    private final int columns;
+    private final int firstNameColumn;
+    private final int lastNameColumn;
+    private final int emailColumn;
+
+    CsvImportSource(Reader reader, int maxRecordLength) throws IOException {
+        this.records = new ImportRecordReader(reader, true, maxRecordLength);
+        ImportRecord header = records.next();
+        if (header == null || header.getError() != null) {
+            throw new IllegalArgumentException("The CSV upload needs a header line, e.g. firstName,lastName,email");
+        }
+        List<String> names = fields(header.getText());
+        columns = names.size();
+        firstNameColumn = column(names, "firstname");
+        lastNameColumn = column(names, "lastname");
+        emailColumn = column(names, "email");
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        return records.next();
+    }
+
+    @Override
+    public ImportedEmployee parse(ImportRecord record) {
+        List<String> fields = fields(record.getText());
+        if (fields.size() != columns) {
+            throw new IllegalArgumentException("Has " + fields.size() + " fields, the header has " + columns);
+        }
+        ImportedEmployee employee = new ImportedEmployee();
+        employee.setFirstName(fields.get(firstNameColumn));
+        employee.setLastName(fields.get(lastNameColumn));
+        employee.setEmail(fields.get(emailColumn));
+        return employee;
+    }
+
+    // first_name, FirstName and firstName all name the same column
+    private static int column(List<String> names, String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).replace("_", "").trim().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("The CSV header has no " + name + " column: " + String.join(",", names));
+    }
+
+    // fields are unquoted and "" inside quotes becomes "; empty fields become null
+    private static List<String> fields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.length() == 0 && !wasQuoted ? null : field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.length() == 0 && !wasQuoted ? null : field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,13 @@
+package com.michael.importing;
+
+import java.io.IOException;
+
+// an upload read one record at a time. Reading is cheap and stays on the request thread,
+// parsing is the expensive part and may run on several threads at once
+public interface EmployeeImportSource {
+    // null at the end of the input
+    ImportRecord next() throws IOException;
+
+    // thread-safe; throws IllegalArgumentException with a message for the error report
+    ImportedEmployee parse(ImportRecord record);
+}
@@ -0,0 +1,265 @@
+package com.michael.importing;
+
+import com.michael.config.CacheConfig;
+import com.michael.dto.BatchItemResult;
+import com.michael.dto.ImportLineError;
+import com.michael.dto.ImportReport;
+import com.michael.model.Employee;
+import com.michael.service.impl.EmployeeBatchWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+// streams an upload into the database: the request thread reads records into chunks, the chunks are parsed and
+// validated on a small pool, and every chunk is written in upload order as one EmployeeBatchWriter transaction.
+// Only a few chunks are held at any time, so memory does not grow with the upload. Emails taken by an earlier
+// chunk are already committed, so the writer's duplicate check also finds duplicates across chunks
+@Slf4j
+@Service
+public class EmployeeImporter {
+    @Autowired
+    private EmployeeBatchWriter batchWriter;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private CacheManager cacheManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${employee.import.chunk-size:1000}")
+    private int chunkSize;
+    // 0 uses one thread per processor
+    @Value("${employee.import.parallelism:0}")
+    private int parallelism;
+    @Value("${employee.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private ThreadPoolTaskExecutor parseExecutor;
+
+    @PostConstruct
+    public void start() {
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        parseExecutor = new ThreadPoolTaskExecutor();
+        parseExecutor.setThreadNamePrefix("employee-import-");
+        parseExecutor.setCorePoolSize(parallelism);
+        parseExecutor.setMaxPoolSize(parallelism);
+        parseExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void stop() {
+        parseExecutor.shutdown();
+    }
+
+    public ImportReport importEmployees(EmployeeImportSource source) throws IOException {
+        Progress progress = new Progress();
+        // parsed chunks waiting to be written; one more than the pool keeps every parser busy while writing
+        Deque<Future<List<ParsedRecord>>> parsing = new ArrayDeque<>();
+        try {
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            for (ImportRecord record = source.next(); record != null; record = source.next()) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    parsing.add(parse(source, chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (parsing.size() > parallelism) {
+                        write(parsing.poll(), progress);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                parsing.add(parse(source, chunk));
+            }
+            while (!parsing.isEmpty()) {
+                write(parsing.poll(), progress);
+            }
+        } finally {
+            parsing.forEach(future -> future.cancel(true));
+            // new ids may still have a short-lived negative entry, as after a batch create
+            if (progress.created > 0) {
+                Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        }
+        return progress.report();
+    }
+
+    private Future<List<ParsedRecord>> parse(EmployeeImportSource source, List<ImportRecord> chunk) {
+        return parseExecutor.submit(() -> chunk.stream()
+                .map(record -> parse(source, record))
+                .collect(Collectors.toList()));
+    }
+
+    private ParsedRecord parse(EmployeeImportSource source, ImportRecord record) {
+        if (record.getError() != null) {
+            return ParsedRecord.failed(record, record.getError());
+        }
+        ImportedEmployee employee;
+        try {
+            employee = source.parse(record);
+        } catch (IllegalArgumentException e) {
+            return ParsedRecord.failed(record, e.getMessage());
+        }
+        if (employee == null) {
+            return ParsedRecord.failed(record, "Not an employee");
+        }
+        List<String> violations = validator.validate(employee).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(EmployeeImporter::describe)
+                .collect(Collectors.toList());
+        if (!violations.isEmpty()) {
+            return ParsedRecord.failed(record, String.join("; ", violations));
+        }
+        return ParsedRecord.parsed(record, employee.toEmployee());
+    }
+
+    private static String describe(ConstraintViolation<ImportedEmployee> violation) {
+        return violation.getPropertyPath() + " " + violation.getMessage();
+    }
+
+    // errors of the chunk are reported in line order, whether parsing or writing found them
+    private void write(Future<List<ParsedRecord>> parsed, Progress progress) {
+        List<ParsedRecord> records = await(parsed);
+        List<Employee> employees = new ArrayList<>(records.size());
+        List<ParsedRecord> written = new ArrayList<>(records.size());
+        List<ImportLineError> errors = new ArrayList<>();
+        for (ParsedRecord record : records) {
+            progress.records++;
+            if (record.employee == null) {
+                errors.add(error(record, record.error));
+            } else {
+                employees.add(record.employee);
+                written.add(record);
+            }
+        }
+        if (!employees.isEmpty()) {
+            writeEmployees(employees, written, errors, progress);
+        }
+        errors.sort(Comparator.comparingLong(ImportLineError::getLine));
+        errors.forEach(progress::fail);
+    }
+
+    private void writeEmployees(List<Employee> employees, List<ParsedRecord> written, List<ImportLineError> errors,
+                                Progress progress) {
+        List<BatchItemResult> results;
+        try {
+            results = writeAgainOnEmailConflict(employees);
+        } catch (RuntimeException e) {
+            // not an email conflict, or one that kept recurring
+            log.warn("Import chunk of lines {}-{} rolled back", written.get(0).lineNumber,
+                    written.get(written.size() - 1).lineNumber, e);
+            written.forEach(record -> errors.add(error(record, "Not imported, its chunk was rolled back")));
+            return;
+        } finally {
+            // with open-in-view the request's persistence context outlives the transaction; empty it, otherwise
+            // it would keep every imported employee until the request ends
+            entityManager.clear();
+        }
+        for (int index = 0; index < results.size(); index++) {
+            BatchItemResult result = results.get(index);
+            if (result.getStatus() == BatchItemResult.Status.CREATED) {
+                progress.created++;
+            } else {
+                errors.add(error(written.get(index), result.getMessage()));
+            }
+        }
+    }
+
+    // an email taken by a concurrent request after the duplicate check rolls the chunk back; it is written again,
+    // and the new duplicate check reports only that line
+    private List<BatchItemResult> writeAgainOnEmailConflict(List<Employee> employees) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return batchWriter.write(employees);
+            } catch (DataIntegrityViolationException e) {
+                if (!EmployeeBatchWriter.isDuplicateEmail(e) || attempt == EmployeeBatchWriter.MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static ImportLineError error(ParsedRecord record, String message) {
+        return ImportLineError.builder().line(record.lineNumber).message(message).build();
+    }
+
+    private static List<ParsedRecord> await(Future<List<ParsedRecord>> parsed) {
+        try {
+            return parsed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parsing an import chunk failed", e.getCause());
+        }
+    }
+
+    private static final class ParsedRecord {
+        private final long lineNumber;
+        private final Employee employee;
+        private final String error;
+
+        private ParsedRecord(long lineNumber, Employee employee, String error) {
+            this.lineNumber = lineNumber;
+            this.employee = employee;
+            this.error = error;
+        }
+
+        private static ParsedRecord parsed(ImportRecord record, Employee employee) {
+            return new ParsedRecord(record.getLineNumber(), employee, null);
+        }
+
+        private static ParsedRecord failed(ImportRecord record, String error) {
+            return new ParsedRecord(record.getLineNumber(), null, error);
+        }
+    }
+
+    private final class Progress {
+        private final List<ImportLineError> errors = new ArrayList<>();
+        private long records;
+        private long created;
+        private long failed;
+
+        private void fail(ImportLineError error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+
+        private ImportReport report() {
+            return ImportReport.builder()
+                    .records(records)
+                    .created(created)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.michael.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Optional;
+
+// the formats of the export, read back
+public enum ImportFormat {
+    NDJSON("application/x-ndjson") {
+        @Override
+        public EmployeeImportSource open(Reader reader, ObjectMapper objectMapper, int maxRecordLength) {
+            return new NdjsonImportSource(reader, objectMapper, maxRecordLength);
+        }
+    },
+    CSV("text/csv") {
+        @Override
+        public EmployeeImportSource open(Reader reader, ObjectMapper objectMapper, int maxRecordLength)
+                throws IOException {
+            return new CsvImportSource(reader, maxRecordLength);
+        }
+    };
+
+    private final MediaType contentType;
+
+    ImportFormat(String contentType) {
+        this.contentType = MediaType.parseMediaType(contentType);
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    // throws IllegalArgumentException when a CSV header lacks a required column
+    public abstract EmployeeImportSource open(Reader reader, ObjectMapper objectMapper, int maxRecordLength)
+            throws IOException;
+
+    public static Optional<ImportFormat> fromContentType(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(format -> format.contentType.isCompatibleWith(contentType))
+                .findFirst();
+    }
+}
@@ -0,0 +1,35 @@
+package com.michael.importing;
+
+// one raw line of an upload (a CSV record may span several lines), numbered by the line it starts on.
+// Records the reader could not take in full carry an error instead of their text
+public final class ImportRecord {
+    private final long lineNumber;
+    private final String text;
+    private final String error;
+
+    private ImportRecord(long lineNumber, String text, String error) {
+        this.lineNumber = lineNumber;
+        this.text = text;
+        this.error = error;
+    }
+
+    static ImportRecord of(long lineNumber, String text) {
+        return new ImportRecord(lineNumber, text, null);
+    }
+
+    static ImportRecord invalid(long lineNumber, String error) {
+        return new ImportRecord(lineNumber, null, error);
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    String getError() {
+        return error;
+    }
+}
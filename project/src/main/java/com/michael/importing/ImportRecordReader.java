@@ -0,0 +1,63 @@
+package com.michael.importing;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// splits the upload into records without holding more than one of them. For CSV, line breaks inside quoted
+// fields belong to the record (RFC 4180). A record longer than the limit is skipped up to its end and reported,
+// so an unterminated quote cannot pull the rest of the file into memory
+class ImportRecordReader {
+    private final Reader reader;
+    private final boolean quotedLineBreaks;
+    private final int maxRecordLength;
+    private final StringBuilder record = new StringBuilder();
+    private long lineNumber;
+
+    ImportRecordReader(Reader reader, boolean quotedLineBreaks, int maxRecordLength) {
+        this.reader = reader;
+        this.quotedLineBreaks = quotedLineBreaks;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // the next record that is not blank, or null at the end of the input
+    ImportRecord next() throws IOException {
+        while (true) {
+            record.setLength(0);
+            long startLine = lineNumber + 1;
+            boolean quoted = false;
+            boolean tooLong = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '\n') {
+                    lineNumber++;
+                    if (!quoted) {
+                        break;
+                    }
+                } else if (c == '"' && quotedLineBreaks) {
+                    // an escaped quote ("") toggles twice
+                    quoted = !quoted;
+                } else if (c == '\r' && !quoted) {
+                    continue;
+                }
+                if (record.length() < maxRecordLength) {
+                    record.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+            }
+            if (c == -1) {
+                if (record.length() == 0 && !tooLong) {
+                    return null;
+                }
+                lineNumber++;
+            }
+            if (tooLong) {
+                return ImportRecord.invalid(startLine, "Record is longer than " + maxRecordLength
+                        + " characters" + (quoted ? ", probably an unterminated quote" : ""));
+            }
+            if (!record.toString().isBlank()) {
+                return ImportRecord.of(startLine, record.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.michael.importing;
+
+import com.michael.model.Employee;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+// an employee as uploaded, checked with bean validation before it is written
+@NoArgsConstructor
+@Getter
+@Setter
+public class ImportedEmployee {
+    @NotBlank
+    @Size(max = 255)
+    private String firstName;
+
+    @NotBlank
+    @Size(max = 255)
+    private String lastName;
+
+    @NotBlank
+    @Email
+    @Size(max = 255)
+    private String email;
+
+    public Employee toEmployee() {
+        return Employee.builder()
+                .firstName(firstName.trim())
+                .lastName(lastName.trim())
+                .email(email.trim())
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.michael.importing;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// one JSON employee object per line, as written by the NDJSON export
+class NdjsonImportSource implements EmployeeImportSource {
+    private final ImportRecordReader records;
+    private final ObjectReader objectReader;
+
+    NdjsonImportSource(Reader reader, ObjectMapper objectMapper, int maxRecordLength) {
+        this.records = new ImportRecordReader(reader, false, maxRecordLength);
+        // error messages are reported per line, without echoing the line itself
+        this.objectReader = objectMapper.readerFor(ImportedEmployee.class)
+                .without(JsonParser.Feature.INCLUDE_SOURCE_IN_LOCATION);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        return records.next();
+    }
+
+    @Override
+    public ImportedEmployee parse(ImportRecord record) {
+        try {
+            return objectReader.readValue(record.getText());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Not a JSON employee: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.michael.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.michael.model.Employee;
+
+import java.io.IOException;
+
+// writes Employee field by field instead of through Jackson's reflective bean serializer. The output is the
+// same as before: every property in declaration order, nulls included. Field names are quoted once, up front
+public class EmployeeJsonSerializer extends StdSerializer<Employee> {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    public EmployeeJsonSerializer() {
+        super(Employee.class);
+    }
+
+    // for every ObjectMapper that writes employees, whatever its data format
+    public static Module module() {
+        return new SimpleModule("EmployeeSerializer").addSerializer(Employee.class, new EmployeeJsonSerializer());
+    }
+
+    @Override
+    public void serialize(Employee employee, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(employee);
+        generator.writeFieldName(ID);
+        if (employee.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(employee.getId());
+        }
+        generator.writeFieldName(FIRST_NAME);
+        generator.writeString(employee.getFirstName());
+        generator.writeFieldName(LAST_NAME);
+        generator.writeString(employee.getLastName());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(employee.getEmail());
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(employee.getVersion());
+        generator.writeEndObject();
+    }
+}
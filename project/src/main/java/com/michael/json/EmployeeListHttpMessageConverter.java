@@ -0,0 +1,154 @@
+package com.michael.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.michael.model.Employee;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+// writes List<Employee> responses with an ObjectWriter resolved once at startup, straight into the response.
+// The first bytes are held back in a per-thread buffer of server.compression.min-response-size: a list that fits
+// goes out with a Content-Length, so the server does not gzip it, while a larger one streams on without a length
+// and is compressed when server.compression is enabled and the client accepts gzip
+@Component
+public class EmployeeListHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<Employee>> {
+    private static final TypeReference<List<Employee>> EMPLOYEE_LIST = new TypeReference<>() {
+    };
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${server.compression.min-response-size:2KB}")
+    private DataSize compressionThreshold;
+
+    private ObjectWriter listWriter;
+    private ThreadLocal<byte[]> buffers;
+
+    public EmployeeListHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @PostConstruct
+    public void init() {
+        listWriter = objectMapper.writerFor(EMPLOYEE_LIST);
+        int bufferSize = (int) compressionThreshold.toBytes();
+        buffers = ThreadLocal.withInitial(() -> new byte[bufferSize]);
+    }
+
+    // a class alone does not tell the element type, so the class-only checks never match; Spring MVC asks
+    // canWrite(Type, Class, MediaType) with the declared return type
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return false;
+    }
+
+    // List<Employee> or any List implementation of Employee elements, never raw lists or lists of other types
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type == null) {
+            return false;
+        }
+        ResolvableType resolvedType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvedType.toClass())
+                && resolvedType.asCollection().resolveGeneric(0) == Employee.class
+                && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(List<Employee> employees, Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        ThresholdOutputStream out = new ThresholdOutputStream(outputMessage, buffers.get());
+        listWriter.writeValue(out, employees);
+        out.finish();
+    }
+
+    @Override
+    public List<Employee> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Employee lists are only written");
+    }
+
+    @Override
+    protected List<Employee> readInternal(Class<? extends List<Employee>> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Employee lists are only written");
+    }
+
+    // the response body is only opened, and so its headers sent, once the buffer overflows or the list is complete
+    private static final class ThresholdOutputStream extends OutputStream {
+        private final HttpOutputMessage outputMessage;
+        private final byte[] buffer;
+        private int buffered;
+        private OutputStream body;
+
+        private ThresholdOutputStream(HttpOutputMessage outputMessage, byte[] buffer) {
+            this.outputMessage = outputMessage;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (body == null && buffered < buffer.length) {
+                buffer[buffered++] = (byte) b;
+                return;
+            }
+            stream().write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (body == null && length <= buffer.length - buffered) {
+                System.arraycopy(bytes, offset, buffer, buffered, length);
+                buffered += length;
+                return;
+            }
+            stream().write(bytes, offset, length);
+        }
+
+        // the generator flushes and closes its target when done; neither may commit a response still buffered
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private void finish() throws IOException {
+            if (body == null) {
+                outputMessage.getHeaders().setContentLength(buffered);
+                outputMessage.getBody().write(buffer, 0, buffered);
+            }
+        }
+
+        private OutputStream stream() throws IOException {
+            if (body == null) {
+                body = outputMessage.getBody();
+                body.write(buffer, 0, buffered);
+            }
+            return body;
+        }
+    }
+}
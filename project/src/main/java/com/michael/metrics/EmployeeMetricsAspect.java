@@ -0,0 +1,101 @@
+package com.michael.metrics;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+// times every public method of the employee controllers, the service and the repository, so a slow request
+// can be pinned to a layer. Each method gets a timer, an in-flight long task timer and an error counter
+// tagged by exception; percentiles and histograms are configured in application.properties.
+// Outermost advice, so service timings include the cache and the transaction commit
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EmployeeMetricsAspect {
+    public static final String DURATION = "employee.method.duration";
+    public static final String ACTIVE = "employee.method.active";
+    public static final String ERRORS = "employee.method.errors";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Around("within(com.michael.controller..*)"
+            + " && @within(org.springframework.web.bind.annotation.RestController)"
+            + " && execution(public * *(..))"
+            + " && !@annotation(org.springframework.web.bind.annotation.ExceptionHandler)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "controller", AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName());
+    }
+
+    @Around("execution(public * com.michael.service.EmployeeService+.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "service", AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName());
+    }
+
+    // the repository target is a generated proxy, so it is tagged with its interface name
+    @Around("execution(public * com.michael.repository.EmployeeRepository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "repository", "EmployeeRepository");
+    }
+
+    private Object measure(ProceedingJoinPoint joinPoint, String layer, String component) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMeters methodMeters = meters.computeIfAbsent(method,
+                key -> new MethodMeters(meterRegistry, Tags.of("layer", layer, "class", component, "method", key.getName())));
+        LongTaskTimer.Sample active = methodMeters.active.start();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            finish(methodMeters, active, sample, e);
+            throw e;
+        }
+        // async controller methods return at once; they are measured until their future completes
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((value, e) -> finish(methodMeters, active, sample, e));
+        } else {
+            finish(methodMeters, active, sample, null);
+        }
+        return result;
+    }
+
+    private void finish(MethodMeters methodMeters, LongTaskTimer.Sample active, Timer.Sample sample, Throwable error) {
+        sample.stop(methodMeters.duration);
+        active.stop();
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            meterRegistry.counter(ERRORS, methodMeters.tags.and("exception", cause.getClass().getSimpleName())).increment();
+        }
+    }
+
+    private static final class MethodMeters {
+        private final Tags tags;
+        private final Timer duration;
+        private final LongTaskTimer active;
+
+        private MethodMeters(MeterRegistry meterRegistry, Tags tags) {
+            this.tags = tags;
+            this.duration = Timer.builder(DURATION).tags(tags).register(meterRegistry);
+            this.active = LongTaskTimer.builder(ACTIVE).tags(tags).register(meterRegistry);
+        }
+    }
+}
@@ -11,10 +11,18 @@ import javax.persistence.*;
 @Getter
 @Builder
 @Entity
-@Table(name = "employees")
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_CONSTRAINT, columnNames = "email"),
+        indexes = @Index(name = "idx_employees_last_first", columnList = "last_name, first_name"))
 public class Employee {
+    public static final String EMAIL_CONSTRAINT = "uk_employees_email";
+    // ids reserved from employees_seq at a time, also by the reactive stack's EmployeeIdAllocator
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "first_name", nullable = false)
@@ -25,4 +33,9 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    // optimistic lock counter, also served as the ETag of the employee resource
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,19 @@
+package com.michael.ratelimit;
+
+import javax.servlet.http.HttpServletRequest;
+
+// who sent a request: the value of the configured client header (e.g. an API key set by a trusted gateway) or,
+// without one, the remote address. Shared by the rate limit and the Idempotency-Key scope
+public class ClientKeyResolver {
+    private final String clientHeader;
+
+    // clientHeader may be null to key on the remote address only
+    public ClientKeyResolver(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String client = clientHeader == null ? null : request.getHeader(clientHeader);
+        return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+    }
+}
@@ -0,0 +1,65 @@
+package com.michael.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// token bucket per client, kept as GCRA: the only state is the time at which the client's bucket is full
+// again (its theoretical arrival time), updated with a compare-and-set, so admitting a request takes no lock.
+// Clients live in a bounded Caffeine map and are evicted once idle; an idle client's bucket would be full
+// anyway, so eviction forgets nothing but the entry. Under size pressure a busy client may also be evicted and
+// start over with a full bucket, which errs on the side of admitting
+public class ClientRateLimiter {
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+    private final Cache<String, AtomicLong> clients;
+
+    // rate requests per second on average, up to burst at once
+    public ClientRateLimiter(double rate, int burst, int maxClients, Duration idleTimeout, LongSupplier nanoTime) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate must be positive and burst at least 1");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.nanoTime = nanoTime;
+        // an idle client must not be evicted before its bucket refilled, or it could burst again too early
+        Duration idle = idleTimeout.toNanos() < burstNanos ? Duration.ofNanos(burstNanos) : idleTimeout;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idle)
+                .ticker(nanoTime::getAsLong)
+                .build();
+    }
+
+    public ClientRateLimiter(double rate, int burst, int maxClients, Duration idleTimeout) {
+        this(rate, burst, maxClients, idleTimeout, Ticker.systemTicker()::read);
+    }
+
+    // 0 when the request is admitted, otherwise how long the client has to wait, in nanoseconds
+    public long tryAcquire(String client) {
+        AtomicLong arrival = clients.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long waitNanos = next - now - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long trackedClients() {
+        clients.cleanUp();
+        return clients.estimatedSize();
+    }
+}
@@ -0,0 +1,56 @@
+package com.michael.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// admission control in front of api/employees: every client has separate budgets for reads and writes.
+// Clients are told apart by ClientKeyResolver; behind a proxy the remote address needs
+// server.forward-headers-strategy, or every client shares the proxy's bucket. Requests over budget are answered 429 before they reach a controller or take a database connection
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String REJECTED = "employee.rate-limit.rejected";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ClientRateLimiter reads;
+    private final ClientRateLimiter writes;
+    private final ClientKeyResolver clients;
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public RateLimitFilter(ClientRateLimiter reads, ClientRateLimiter writes, ClientKeyResolver clients,
+                           MeterRegistry meterRegistry) {
+        this.reads = reads;
+        this.writes = writes;
+        this.clients = clients;
+        this.rejectedReads = meterRegistry.counter(REJECTED, "budget", "read");
+        this.rejectedWrites = meterRegistry.counter(REJECTED, "budget", "write");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = SAFE_METHODS.contains(request.getMethod());
+        long waitNanos = (read ? reads : writes).tryAcquire(clients.resolve(request));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        (read ? rejectedReads : rejectedWrites).increment();
+        // Retry-After has whole seconds; rounded up, so a client that honours it is admitted
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Too many employee " + (read ? "reads" : "writes") + " from this client");
+    }
+}
@@ -0,0 +1,19 @@
+package com.michael.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Profile;
+
+// entry point of the reactive stack: WebFlux and R2DBC instead of Spring MVC and JPA.
+// Only com.michael.reactive is scanned, so none of the servlet beans are created
+@SpringBootApplication
+@Profile(ReactiveProjectApplication.PROFILE)
+public class ReactiveProjectApplication {
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveProjectApplication.class);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+}
@@ -0,0 +1,119 @@
+package com.michael.reactive.controller;
+
+import com.michael.controller.EmployeeController;
+import com.michael.controller.EmployeeCursor;
+import com.michael.reactive.model.ReactiveEmployee;
+import com.michael.reactive.ReactiveProjectApplication;
+import com.michael.reactive.service.ReactiveEmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+// WebFlux mirror of the core EmployeeController endpoints; no thread is held while the database works.
+// Only create, keyset list, search, get, put, delete and the NDJSON export are mirrored, enough to compare the
+// stacks (see StackThroughputComparison in the benchmarks module). Not mirrored: PATCH, the batch create,
+// ETags and If-Match, Idempotency-Key, ?fields=, suggest, import and the change feed
+@RestController
+@RequestMapping("api/employees")
+@Profile(ReactiveProjectApplication.PROFILE)
+public class ReactiveEmployeeController {
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ReactiveEmployeeService employeeService;
+
+    @PostMapping
+    public Mono<ResponseEntity<ReactiveEmployee>> createEmployee(@RequestBody ReactiveEmployee employee) {
+        return employeeService.saveEmployee(employee)
+                .map(savedEmployee -> new ResponseEntity<>(savedEmployee, HttpStatus.CREATED));
+    }
+
+    // keyset pagination with the same cursor format as the servlet stack
+    @GetMapping
+    public Mono<ResponseEntity<List<ReactiveEmployee>>> getAllEmployees(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        Optional<Long> afterId = after == null ? Optional.of(0L) : EmployeeCursor.decode(after);
+        if (limit < 1 || limit > MAX_PAGE_SIZE || afterId.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return employeeService.getEmployeesAfter(afterId.get(), limit)
+                .collectList()
+                .map(rows -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    List<ReactiveEmployee> content = rows.size() > limit ? rows.subList(0, limit) : rows;
+                    if (rows.size() > limit) {
+                        headers.set(EmployeeController.NEXT_CURSOR_HEADER,
+                                EmployeeCursor.encode(content.get(content.size() - 1).getId()));
+                    }
+                    return new ResponseEntity<>(content, headers, HttpStatus.OK);
+                });
+    }
+
+    // streams the whole table as NDJSON; rows are only read as fast as the client consumes them
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReactiveEmployee> exportEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    // a full page announces a next one, which may turn out to be empty
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<ReactiveEmployee>>> searchEmployees(
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        boolean noName = (firstName == null || firstName.isBlank()) && (lastName == null || lastName.isBlank());
+        if (noName || page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return employeeService.searchEmployees(firstName, lastName, page, size)
+                .collectList()
+                .map(content -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    if (content.size() == size) {
+                        headers.set(EmployeeController.NEXT_PAGE_HEADER, String.valueOf(page + 1));
+                    }
+                    return new ResponseEntity<>(content, headers, HttpStatus.OK);
+                });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ReactiveEmployee>> getEmployeeByID(@PathVariable long id) {
+        return employeeService.getEmployeeById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ReactiveEmployee>> updateEmployee(
+            @PathVariable long id, @RequestBody ReactiveEmployee employee) {
+        return employeeService.getEmployeeById(id)
+                .flatMap(saveEmployee -> employeeService.updateEmployee(ReactiveEmployee.builder()
+                        .id(saveEmployee.getId())
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .version(saveEmployee.getVersion())
+                        .build()))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable long id) {
+        return employeeService.deleteEmployee(id)
+                .map(deleted -> deleted
+                        ? new ResponseEntity<>("Employee with id: " + id + " was deleted", HttpStatus.OK)
+                        : ResponseEntity.<String>notFound().build());
+    }
+}
@@ -0,0 +1,28 @@
+package com.michael.reactive.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+// R2DBC mapping of the employees table; same columns and JSON shape as com.michael.model.Employee
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+@Table("employees")
+public class ReactiveEmployee {
+    @Id
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    // 0 marks a new row, so inserts work with an id taken from EmployeeIdAllocator
+    @Version
+    private long version;
+}
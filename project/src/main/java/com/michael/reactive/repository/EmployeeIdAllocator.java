@@ -0,0 +1,70 @@
+package com.michael.reactive.repository;
+
+import com.michael.model.Employee;
+import com.michael.reactive.ReactiveProjectApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// hands out employee ids from the employees_seq table shared with Hibernate's pooled generator.
+// A block is reserved with a compare-and-set on next_val, exactly like Hibernate does, so both stacks
+// can insert into the same table; ids left in a block on shutdown or a lost race are simply skipped
+@Component
+@Profile(ReactiveProjectApplication.PROFILE)
+public class EmployeeIdAllocator {
+    // the allocationSize of the employees_seq generator on Employee, so both stacks read next_val the same way
+    public static final int BLOCK_SIZE = Employee.ID_ALLOCATION_SIZE;
+    private static final int MAX_ATTEMPTS = 10;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private final AtomicReference<IdBlock> current = new AtomicReference<>(new IdBlock(1, 0));
+
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            IdBlock block = current.get();
+            long id = block.next.getAndIncrement();
+            if (id <= block.last) {
+                return Mono.just(id);
+            }
+            return reserveBlock().map(reserved -> {
+                long first = reserved.next.getAndIncrement();
+                current.compareAndSet(block, reserved);
+                return first;
+            });
+        });
+    }
+
+    // reading value v and moving next_val to v + BLOCK_SIZE reserves (v - BLOCK_SIZE, v],
+    // as with Hibernate's pooled optimizer
+    private Mono<IdBlock> reserveBlock() {
+        return databaseClient.sql("select next_val from employees_seq")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .flatMap(value -> databaseClient
+                        .sql("update employees_seq set next_val = :next where next_val = :current")
+                        .bind("next", value + BLOCK_SIZE)
+                        .bind("current", value)
+                        .fetch()
+                        .rowsUpdated()
+                        .filter(rows -> rows > 0)
+                        .map(rows -> new IdBlock(Math.max(1, value - BLOCK_SIZE + 1), value)))
+                .repeatWhenEmpty(MAX_ATTEMPTS, attempts -> attempts);
+    }
+
+    private static class IdBlock {
+        private final AtomicLong next;
+        private final long last;
+
+        IdBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.michael.reactive.repository;
+
+import com.michael.reactive.model.ReactiveEmployee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC counterpart of EmployeeRepository over the same employees table
+@Repository
+public interface ReactiveEmployeeRepository extends R2dbcRepository<ReactiveEmployee, Long> {
+    Mono<ReactiveEmployee> findByEmail(String email);
+
+    Flux<ReactiveEmployee> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    Flux<ReactiveEmployee> findByLastNameStartingWithAndFirstNameStartingWith(String lastName, String firstName,
+                                                                      Pageable pageable);
+
+    // emitted as the driver reads the rows, so the subscriber's demand paces the scan
+    Flux<ReactiveEmployee> findAllByOrderByIdAsc();
+
+    @Modifying
+    @Query("delete from employees where id = :id")
+    Mono<Integer> deleteEmployeeById(long id);
+}
@@ -0,0 +1,21 @@
+package com.michael.reactive.service;
+
+import com.michael.reactive.model.ReactiveEmployee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeService {
+    Mono<ReactiveEmployee> saveEmployee(ReactiveEmployee employee);
+
+    Flux<ReactiveEmployee> getAllEmployees();
+
+    Flux<ReactiveEmployee> getEmployeesAfter(long afterId, int limit);
+
+    Flux<ReactiveEmployee> searchEmployees(String firstName, String lastName, int page, int size);
+
+    Mono<ReactiveEmployee> getEmployeeById(long id);
+
+    Mono<ReactiveEmployee> updateEmployee(ReactiveEmployee updatedEmployee);
+
+    Mono<Boolean> deleteEmployee(long id);
+}
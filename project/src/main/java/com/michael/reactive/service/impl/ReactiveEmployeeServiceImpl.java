@@ -0,0 +1,77 @@
+package com.michael.reactive.service.impl;
+
+import com.michael.exception.ResourceNotFoundException;
+import com.michael.reactive.model.ReactiveEmployee;
+import com.michael.reactive.ReactiveProjectApplication;
+import com.michael.reactive.repository.EmployeeIdAllocator;
+import com.michael.reactive.repository.ReactiveEmployeeRepository;
+import com.michael.reactive.service.ReactiveEmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile(ReactiveProjectApplication.PROFILE)
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+    private static final Sort NAME_ORDER = Sort.by("lastName", "firstName", "id");
+
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeIdAllocator idAllocator;
+
+    // the unique email constraint decides duplicates, as in the servlet stack
+    @Override
+    public Mono<ReactiveEmployee> saveEmployee(ReactiveEmployee employee) {
+        return idAllocator.nextId()
+                .flatMap(id -> employeeRepository.save(ReactiveEmployee.builder()
+                        .id(id)
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .build()))
+                .onErrorMap(DataIntegrityViolationException.class, e -> new ResourceNotFoundException(
+                        "Employee already exists with given email: " + employee.getEmail(), e));
+    }
+
+    @Override
+    public Flux<ReactiveEmployee> getAllEmployees() {
+        return employeeRepository.findAllByOrderByIdAsc();
+    }
+
+    // one row past the limit tells the caller whether there is a next page
+    @Override
+    public Flux<ReactiveEmployee> getEmployeesAfter(long afterId, int limit) {
+        return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit + 1));
+    }
+
+    @Override
+    public Flux<ReactiveEmployee> searchEmployees(String firstName, String lastName, int page, int size) {
+        return employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(
+                lastName == null ? "" : lastName,
+                firstName == null ? "" : firstName,
+                PageRequest.of(page, size, NAME_ORDER));
+    }
+
+    @Override
+    public Mono<ReactiveEmployee> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    // a stale version fails with an OptimisticLockingFailureException
+    @Override
+    public Mono<ReactiveEmployee> updateEmployee(ReactiveEmployee updatedEmployee) {
+        return employeeRepository.save(updatedEmployee);
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(long id) {
+        return employeeRepository.deleteEmployeeById(id).map(deletedRows -> deletedRows > 0);
+    }
+}
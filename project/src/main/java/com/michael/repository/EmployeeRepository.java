@@ -1,34 +1,70 @@
 package com.michael.repository;
 
 import com.michael.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
     Optional<Employee> findByEmail(String email);
 
-    // define custom query  using JPQL with index params
-    @Query("select e from  Employee e where e.firstName = ?1 and e.lastName = ?2")
-    Employee findByJPQL(String firsName, String lastName);
+    // lets conditional requests be answered without hydrating the entity
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
 
-    // define custom query  using JPQL with named params
-    @Query("select e from  Employee e where e.firstName = :firsName and e.lastName = :lastName")
-    Employee findByJPQLNamedParams(@Param("firsName") String firsName, @Param("lastName") String lastName);
+    // one set-based duplicate check for a whole batch instead of a findByEmail per row
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 
+    // keyset page: rows after the given id in id order; Slice fetches limit + 1 rows instead of running count(*)
+    Slice<Employee> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 
-    // define custom query  using native SQL with index params
-    @Query(value = "select * from employees e where  e.first_name = ?1 and e.last_name = ?2 ", nativeQuery = true)
-    Employee findByNativeSQL(String firstName, String lastName);
+    // forward-only scan for exports, must be consumed inside a transaction;
+    // MySQL only honours the fetch size when the url has useCursorFetch=true
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")})
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAll();
 
+    // plain DELETE statements: deleteById would load the entity first and throw when it is missing
+    @Modifying
+    @Transactional
+    @Query("delete from Employee e where e.id = :id")
+    int deleteEmployeeById(@Param("id") long id);
 
-    // define custom query  using native SQL with named params
-    @Query(value = "select * from employees e where  e.first_name = :firstName and e.last_name = :lastName ", nativeQuery = true)
-    Employee findByNativeSQLNamed(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    // the ids of a bulk delete that exist, locked until the delete commits so a concurrent delete of the same
+    // rows waits and then does not report them again
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
 
+    @Modifying
+    @Transactional
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteEmployeesByIds(@Param("ids") Collection<Long> ids);
 
+    // name search: prefix matches on the (last_name, first_name) index; wildcards in the input are escaped
+    Slice<Employee> findByLastNameStartingWithAndFirstNameStartingWith(String lastName, String firstName,
+                                                                       Pageable pageable);
 }
@@ -0,0 +1,26 @@
+package com.michael.repository;
+
+import com.michael.dto.EmployeeField;
+import com.michael.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// queries whose shape depends on the input and therefore cannot be declared with @Query
+public interface EmployeeRepositoryCustom {
+    // one UPDATE touching only the non-null fields of changes and bumping the version;
+    // with an expectedVersion the row is only updated if it still has that version. Returns the affected row count
+    int patchById(long id, Employee changes, Long expectedVersion);
+
+    // sparse reads: only the requested columns are selected and no entity is materialized.
+    // Each row is a map from attribute name to value
+    Slice<Map<String, Object>> findFieldsByIdGreaterThan(long id, Set<EmployeeField> fields, int limit);
+
+    Optional<Map<String, Object>> findFieldsById(long id, Set<EmployeeField> fields);
+
+    Slice<Map<String, Object>> findFieldsByNamePrefix(String lastName, String firstName,
+                                                      Set<EmployeeField> fields, Pageable pageable);
+}
@@ -0,0 +1,132 @@
+package com.michael.repository;
+
+import com.michael.dto.EmployeeField;
+import com.michael.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+    // a backslash would itself need escaping inside MySQL string literals
+    private static final char LIKE_ESCAPE = '!';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int patchById(long id, Employee changes, Long expectedVersion) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = criteriaBuilder.createCriteriaUpdate(Employee.class);
+        Root<Employee> employee = update.from(Employee.class);
+        if (changes.getFirstName() != null) {
+            update.set(employee.<String>get("firstName"), changes.getFirstName());
+        }
+        if (changes.getLastName() != null) {
+            update.set(employee.<String>get("lastName"), changes.getLastName());
+        }
+        if (changes.getEmail() != null) {
+            update.set(employee.<String>get("email"), changes.getEmail());
+        }
+        // bulk updates skip Hibernate's versioning, so the version is maintained here
+        update.set(employee.<Long>get("version"), criteriaBuilder.sum(employee.<Long>get("version"), 1L));
+        if (expectedVersion == null) {
+            update.where(criteriaBuilder.equal(employee.get("id"), id));
+        } else {
+            update.where(criteriaBuilder.equal(employee.get("id"), id),
+                    criteriaBuilder.equal(employee.get("version"), expectedVersion));
+        }
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> findFieldsByIdGreaterThan(long id, Set<EmployeeField> fields, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        query.multiselect(selections(employee, fields))
+                .where(criteriaBuilder.greaterThan(employee.get("id"), id))
+                .orderBy(criteriaBuilder.asc(employee.get("id")));
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        return toSlice(rows, fields, Pageable.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findFieldsById(long id, Set<EmployeeField> fields) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        query.multiselect(selections(employee, fields))
+                .where(criteriaBuilder.equal(employee.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst().map(row -> toMap(row, fields));
+    }
+
+    // same predicate and (last_name, first_name, id) order as the derived prefix search, so the index still applies
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> findFieldsByNamePrefix(String lastName, String firstName,
+                                                             Set<EmployeeField> fields, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+        query.multiselect(selections(employee, fields))
+                .where(criteriaBuilder.like(employee.get("lastName"), likePrefix(lastName), LIKE_ESCAPE),
+                        criteriaBuilder.like(employee.get("firstName"), likePrefix(firstName), LIKE_ESCAPE))
+                .orderBy(criteriaBuilder.asc(employee.get("lastName")),
+                        criteriaBuilder.asc(employee.get("firstName")),
+                        criteriaBuilder.asc(employee.get("id")));
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        return toSlice(rows, fields, pageable);
+    }
+
+    private static List<Selection<?>> selections(Root<Employee> employee, Set<EmployeeField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (EmployeeField field : fields) {
+            selections.add(employee.get(field.getAttribute()).alias(field.getAttribute()));
+        }
+        return selections;
+    }
+
+    // one row past the page was read only to tell whether there is a next page
+    private static Slice<Map<String, Object>> toSlice(List<Tuple> rows, Set<EmployeeField> fields, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<Map<String, Object>> content = new ArrayList<>(Math.min(rows.size(), pageable.getPageSize()));
+        for (int i = 0; i < rows.size() && i < pageable.getPageSize(); i++) {
+            content.add(toMap(rows.get(i), fields));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static Map<String, Object> toMap(Tuple row, Set<EmployeeField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (EmployeeField field : fields) {
+            values.put(field.getAttribute(), row.get(field.getAttribute()));
+        }
+        return values;
+    }
+
+    private static String likePrefix(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
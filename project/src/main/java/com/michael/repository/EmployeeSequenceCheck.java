@@ -0,0 +1,54 @@
+package com.michael.repository;
+
+import com.michael.model.Employee;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+// employee ids came from IDENTITY before employees_seq existed, and ddl-auto=update creates the sequence at 1
+// next to rows with higher ids. Checked once at startup, before any insert: the table that stands in for the
+// sequence on MySQL is raised past max(id); a native sequence that is behind fails the startup instead, as
+// there is no portable statement to move it
+@Slf4j
+@Component
+public class EmployeeSequenceCheck {
+    static final String SEQUENCE = "employees_seq";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    // also makes sure Hibernate created or updated the schema first
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void check() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from employees", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (!dialect.supportsSequences()) {
+            // the pooled optimizer hands out (next_val - allocation size, next_val] for the value it reads.
+            // Only ever raised, so instances starting together do not undo each other
+            long required = maxId + Employee.ID_ALLOCATION_SIZE;
+            int raised = jdbcTemplate.update("update " + SEQUENCE + " set next_val = ? where next_val < ?",
+                    required, required);
+            if (raised > 0) {
+                log.warn("Raised {} to {}, past the highest employee id {}", SEQUENCE, required, maxId);
+            }
+            return;
+        }
+        // reserves one block, which is skipped; the following ones start above the value read
+        Long value = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(SEQUENCE), Long.class);
+        if (value == null || value < maxId) {
+            throw new IllegalStateException(SEQUENCE + " is at " + value + " but employees go up to id " + maxId
+                    + "; restart it with " + (maxId + Employee.ID_ALLOCATION_SIZE) + " before starting");
+        }
+    }
+}
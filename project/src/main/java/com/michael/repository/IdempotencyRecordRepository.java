@@ -0,0 +1,49 @@
+package com.michael.repository;
+
+import com.michael.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    // not read-only, so it is never routed to a replica that has yet to see the key
+    @Override
+    @Transactional
+    Optional<IdempotencyRecord> findById(String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.expiresAt <= :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = :status, r.eTag = :eTag, r.body = :body, r.expiresAt = :expiresAt"
+            + " where r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("eTag") String eTag,
+                 @Param("body") String body, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.expiresAt = :expiresAt"
+            + " where r.idempotencyKey = :key and r.fingerprint = :fingerprint and r.status is null")
+    int renew(@Param("key") String key, @Param("fingerprint") String fingerprint,
+              @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.status is null")
+    int release(@Param("key") String key);
+}
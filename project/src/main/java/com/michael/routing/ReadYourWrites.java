@@ -0,0 +1,42 @@
+package com.michael.routing;
+
+// marks the current thread as having to read from the primary: the request writes, or its client wrote
+// within the read-your-writes window (see ReadYourWritesFilter). The async bulkheads carry the mark over
+public final class ReadYourWrites {
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    public static boolean bind(boolean pinned) {
+        boolean previous = isPinned();
+        PINNED.set(pinned);
+        return previous;
+    }
+
+    public static void restore(boolean previous) {
+        if (previous) {
+            PINNED.set(true);
+        } else {
+            PINNED.remove();
+        }
+    }
+
+    public static Runnable propagate(Runnable task) {
+        if (!isPinned()) {
+            return task;
+        }
+        return () -> {
+            boolean previous = bind(true);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,5 @@
+package com.michael.routing;
+
+public enum ReplicaSelection {
+    ROUND_ROBIN, LEAST_CONNECTIONS
+}
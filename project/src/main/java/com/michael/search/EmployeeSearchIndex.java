@@ -0,0 +1,471 @@
+package com.michael.search;
+
+import com.michael.event.EmployeeChangedEvent;
+import com.michael.model.Employee;
+import com.michael.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// type-ahead over first name, last name and email, answered from memory so keystrokes never reach MySQL.
+// Lower-cased names, their words, the email and the words of its local part are kept in a sorted term map
+// for prefix lookups; the trigrams of those words catch typos when the prefixes alone do not fill the result.
+// An entry keeps the indexed fields and its terms, which share the strings of the term map, so a lookup
+// never tokenizes again; the trigrams are derived from the terms when the entry changes
+@Component
+public class EmployeeSearchIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int GRAM_LENGTH = 3;
+    private static final String WORD_START_PADDING = "  ";
+    // share of the query trigrams an employee must contain to count as a fuzzy match
+    private static final double MIN_FUZZY_SIMILARITY = 0.5;
+    // ids a fuzzy lookup examines at most, so a query made only of common trigrams stays cheap; past it,
+    // weaker matches may be missed
+    private static final int MAX_FUZZY_CANDIDATES = 10_000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Postings> grams = new HashMap<>();
+    private final Set<Long> removedWhileBuilding = new HashSet<>();
+    private final Set<Long> patchedWhileBuilding = new HashSet<>();
+    private boolean building;
+
+    // one streaming pass over the table. Writes that happen meanwhile arrive as events and win over the
+    // rows the scan read before them: older versions and rows deleted during the scan are skipped. A patch
+    // carries only the changed fields, so one of a row not loaded yet is replayed by reading the row again
+    // after the scan, which may have read it before the patch
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        setBuilding(true);
+        try {
+            employeeService.exportEmployees(this::load);
+            for (long id : patchedWhileBuilding()) {
+                employeeService.getEmployeeById(id).ifPresent(this::load);
+            }
+        } finally {
+            setBuilding(false);
+        }
+    }
+
+    // transactional writes are applied once they committed, the others right away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+            case UPDATED:
+                event.getEmployees().forEach(this::index);
+                break;
+            case PATCHED:
+                event.getEmployees().forEach(changes -> patch(changes, event.getVersion()));
+                break;
+            case DELETED:
+                event.getIds().forEach(this::remove);
+                break;
+        }
+    }
+
+    public void index(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            put(employee.getId(), new Entry(employee));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // applies the changed fields to the indexed employee; without a known version, a PATCH moves it on by one
+    public void patch(Employee changes, Long version) {
+        lock.writeLock().lock();
+        try {
+            Entry current = entries.get(changes.getId());
+            if (current == null) {
+                if (building) {
+                    patchedWhileBuilding.add(changes.getId());
+                }
+                return;
+            }
+            put(changes.getId(), new Entry(
+                    changes.getFirstName() != null ? changes.getFirstName() : current.firstName,
+                    changes.getLastName() != null ? changes.getLastName() : current.lastName,
+                    changes.getEmail() != null ? changes.getEmail() : current.email,
+                    version != null ? version : current.version + 1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                removedWhileBuilding.add(id);
+            }
+            Entry removed = entries.remove(id);
+            if (removed != null) {
+                unlink(id, removed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // every word of the query must start a term of the employee. The longest word drives the lookup: its
+    // prefix range is read in term order (an exact term first), then trigram matches fill what is left
+    public List<Employee> suggest(String query, int limit) {
+        List<String> words = queryWords(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String driver = words.stream().max(Comparator.comparingInt(String::length)).get();
+        List<String> others = new ArrayList<>(words);
+        others.remove(driver);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> found = new LinkedHashSet<>();
+            collectPrefixMatches(driver, others, found, limit);
+            if (found.size() < limit && driver.length() >= GRAM_LENGTH) {
+                collectFuzzyMatches(driver, others, found, limit);
+            }
+            return found.stream()
+                    .map(id -> entries.get(id).toEmployee(id))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collectPrefixMatches(String driver, List<String> others, Set<Long> found, int limit) {
+        for (Postings postings : terms.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                long id = postings.ids[i];
+                if (matchesAll(entries.get(id), others)) {
+                    found.add(id);
+                    if (found.size() == limit) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    // an employee needs required of the n query trigrams, so it is in at least one of the n - required + 1
+    // rarest postings: only those are walked, and each candidate is counted with binary searches in the others.
+    // The best matches are ranked in arrays of the remaining result size, nothing is allocated per candidate
+    private void collectFuzzyMatches(String driver, List<String> others, Set<Long> found, int limit) {
+        Set<String> queryGrams = gramsOf(driver);
+        int required = (int) Math.ceil(queryGrams.size() * MIN_FUZZY_SIMILARITY);
+        List<Postings> postings = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            Postings ids = grams.get(gram);
+            if (ids != null) {
+                postings.add(ids);
+            }
+        }
+        if (postings.size() < required) {
+            return;
+        }
+        postings.sort(Comparator.comparingInt(ids -> ids.size));
+        long[] bestIds = new long[limit - found.size()];
+        int[] bestShared = new int[bestIds.length];
+        int ranked = 0;
+        int examined = 0;
+        for (int seed = 0; seed <= postings.size() - required && examined < MAX_FUZZY_CANDIDATES; seed++) {
+            Postings seedIds = postings.get(seed);
+            for (int i = 0; i < seedIds.size && examined < MAX_FUZZY_CANDIDATES; i++) {
+                long id = seedIds.ids[i];
+                if (inAny(postings, 0, seed, id)) {
+                    // counted with an earlier seed already
+                    continue;
+                }
+                examined++;
+                int shared = 1;
+                for (int other = seed + 1; other < postings.size(); other++) {
+                    if (postings.get(other).contains(id)) {
+                        shared++;
+                    }
+                }
+                if (shared >= required && !found.contains(id) && matchesAll(entries.get(id), others)) {
+                    ranked = rank(bestIds, bestShared, ranked, id, shared);
+                }
+            }
+        }
+        for (int i = 0; i < ranked; i++) {
+            found.add(bestIds[i]);
+        }
+    }
+
+    private static boolean inAny(List<Postings> postings, int from, int to, long id) {
+        for (int i = from; i < to; i++) {
+            if (postings.get(i).contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // inserts by more shared trigrams first, then lower id; what falls off the end is dropped
+    private static int rank(long[] bestIds, int[] bestShared, int ranked, long id, int shared) {
+        int at = ranked;
+        while (at > 0 && (bestShared[at - 1] < shared || (bestShared[at - 1] == shared && bestIds[at - 1] > id))) {
+            at--;
+        }
+        if (at == bestIds.length) {
+            return ranked;
+        }
+        int moved = Math.min(ranked, bestIds.length - 1) - at;
+        System.arraycopy(bestIds, at, bestIds, at + 1, moved);
+        System.arraycopy(bestShared, at, bestShared, at + 1, moved);
+        bestIds[at] = id;
+        bestShared[at] = shared;
+        return Math.min(ranked + 1, bestIds.length);
+    }
+
+    private void setBuilding(boolean building) {
+        lock.writeLock().lock();
+        try {
+            this.building = building;
+            removedWhileBuilding.clear();
+            patchedWhileBuilding.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Long> patchedWhileBuilding() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(patchedWhileBuilding);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void load(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            Entry current = entries.get(employee.getId());
+            if (removedWhileBuilding.contains(employee.getId())
+                    || (current != null && current.version >= employee.getVersion())) {
+                return;
+            }
+            put(employee.getId(), new Entry(employee));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // callers hold the write lock
+    private void put(long id, Entry entry) {
+        Entry previous = entries.put(id, entry);
+        if (previous != null) {
+            unlink(id, previous);
+        }
+        Set<String> employeeGrams = new HashSet<>();
+        for (int i = 0; i < entry.terms.length; i++) {
+            String term = entry.terms[i];
+            Postings ids = terms.get(term);
+            if (ids == null) {
+                ids = new Postings();
+                terms.put(term, ids);
+            } else {
+                // the entry keeps the map's instance, so a term shared by many employees is stored once
+                entry.terms[i] = terms.ceilingKey(term);
+            }
+            ids.add(id);
+            if (term.indexOf('@') < 0) {
+                employeeGrams.addAll(gramsOf(term));
+            }
+        }
+        for (String gram : employeeGrams) {
+            grams.computeIfAbsent(gram, key -> new Postings()).add(id);
+        }
+    }
+
+    private void unlink(long id, Entry entry) {
+        for (String term : entry.terms) {
+            unlink(terms, term, id);
+            if (term.indexOf('@') < 0) {
+                for (String gram : gramsOf(term)) {
+                    unlink(grams, gram, id);
+                }
+            }
+        }
+    }
+
+    private static void unlink(Map<String, Postings> postings, String key, long id) {
+        Postings ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.size == 0) {
+            postings.remove(key);
+        }
+    }
+
+    private static boolean matchesAll(Entry entry, List<String> words) {
+        if (words.isEmpty()) {
+            return true;
+        }
+        for (String word : words) {
+            if (!startsAny(entry.terms, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsAny(String[] entryTerms, String word) {
+        for (String term : entryTerms) {
+            if (term.startsWith(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] termsOf(String firstName, String lastName, String email) {
+        Set<String> employeeTerms = new HashSet<>();
+        addWithWords(employeeTerms, firstName);
+        addWithWords(employeeTerms, lastName);
+        if (email != null) {
+            email = normalize(email);
+            employeeTerms.add(email);
+            // the domain is shared by most employees, so only the local part is split into words
+            int at = email.indexOf('@');
+            addWithWords(employeeTerms, at < 0 ? email : email.substring(0, at));
+        }
+        employeeTerms.remove("");
+        return employeeTerms.toArray(new String[0]);
+    }
+
+    private static void addWithWords(Set<String> employeeTerms, String value) {
+        if (value == null) {
+            return;
+        }
+        String normalized = normalize(value);
+        employeeTerms.add(normalized);
+        for (String word : WORD_SEPARATOR.split(normalized)) {
+            employeeTerms.add(word);
+        }
+    }
+
+    // padded in front only: matching word starts weigh more, and a half-typed word is not penalised for its end
+    private static Set<String> gramsOf(String term) {
+        String padded = WORD_START_PADDING + term;
+        Set<String> termGrams = new HashSet<>();
+        for (int start = 0; start + GRAM_LENGTH <= padded.length(); start++) {
+            termGrams.add(padded.substring(start, start + GRAM_LENGTH));
+        }
+        return termGrams;
+    }
+
+    private static List<String> queryWords(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        return WHITESPACE.splitAsStream(normalize(query))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final long version;
+        private final String[] terms;
+
+        private Entry(Employee employee) {
+            this(employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getVersion());
+        }
+
+        private Entry(String firstName, String lastName, String email, long version) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.version = version;
+            this.terms = termsOf(firstName, lastName, email);
+        }
+
+        // callers get their own instances, so nobody can change an indexed employee from outside
+        private Employee toEmployee(long id) {
+            return Employee.builder()
+                    .id(id)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(email)
+                    .version(version)
+                    .build();
+        }
+    }
+
+    // the ids of one term or trigram, ascending in a primitive array. Most terms belong to a single employee,
+    // and the scan loads in id order, so building only appends
+    private static final class Postings {
+        private long[] ids = new long[1];
+        private int size;
+
+        private void add(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
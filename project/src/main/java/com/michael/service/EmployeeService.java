@@ -1,18 +1,46 @@
 package com.michael.service;
 
+import com.michael.dto.BatchItemResult;
+import com.michael.dto.EmployeeField;
 import com.michael.model.Employee;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
 
+    List<BatchItemResult> saveEmployees(List<Employee> employees);
+
     List<Employee> getAllEmployees();
 
+    Slice<Employee> getEmployeesAfter(long afterId, int limit);
+
+    Slice<Employee> searchEmployees(String firstName, String lastName, int page, int size);
+
+    Slice<Map<String, Object>> getEmployeeFieldsAfter(long afterId, int limit, Set<EmployeeField> fields);
+
+    Slice<Map<String, Object>> searchEmployeeFields(String firstName, String lastName, int page, int size,
+                                                    Set<EmployeeField> fields);
+
+    Optional<Map<String, Object>> getEmployeeFieldsById(long id, Set<EmployeeField> fields);
+
+    void exportEmployees(Consumer<Employee> consumer);
+
     Optional<Employee> getEmployeeById(long id);
 
+    Optional<Long> getEmployeeVersion(long id);
+
     Employee updateEmployee(Employee updatedEmployee);
 
-    void deleteEmployee(long id);
+    boolean patchEmployee(long id, Employee changes, Long expectedVersion);
+
+    boolean deleteEmployee(long id);
+
+    int deleteEmployees(Collection<Long> ids);
 }
@@ -0,0 +1,134 @@
+package com.michael.service.impl;
+
+import com.michael.dto.BatchItemResult;
+import com.michael.event.EmployeeChangedEvent;
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// inserts many employees in one transaction, shared by the batch endpoint, the import and the write-behind queue.
+// Duplicates are found with one IN query, then rows are persisted and flushed in JDBC batch sized chunks;
+// the persistence context is cleared after every flush so large batches do not accumulate managed entities
+@Component
+public class EmployeeBatchWriter {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // an email taken by a concurrent request after the duplicate check rolls a batch back; callers write it again
+    // up to this many times in all, and the new duplicate check reports that email per item
+    public static final int MAX_ATTEMPTS = 3;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Transactional
+    public List<BatchItemResult> write(List<Employee> employees) {
+        return write(employees, (savedEmployee, index) -> {
+        });
+    }
+
+    // onSaved gets every persisted employee with its index, before the transaction commits; the write-behind
+    // queue hands each caller its saved employee this way
+    @Transactional
+    public List<BatchItemResult> write(List<Employee> employees, ObjIntConsumer<Employee> onSaved) {
+        // as sent and normalized: the unique constraint compares the stored value in the column's collation, the
+        // duplicates within the batch are found by normalized email
+        Set<String> requestedEmails = employees.stream()
+                .map(Employee::getEmail)
+                .filter(Objects::nonNull)
+                .flatMap(email -> Stream.of(email, normalizeEmail(email)))
+                .collect(Collectors.toSet());
+        Set<String> takenEmails = new HashSet<>();
+        if (!requestedEmails.isEmpty()) {
+            employeeRepository.findExistingEmails(requestedEmails)
+                    .forEach(email -> takenEmails.add(normalizeEmail(email)));
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(employees.size());
+        List<Employee> savedEmployees = new ArrayList<>();
+        int pending = 0;
+        for (int index = 0; index < employees.size(); index++) {
+            Employee employee = employees.get(index);
+            if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName()) || isBlank(employee.getEmail())) {
+                results.add(BatchItemResult.builder()
+                        .index(index)
+                        .email(employee.getEmail())
+                        .status(BatchItemResult.Status.INVALID)
+                        .message("firstName, lastName and email are required")
+                        .build());
+                continue;
+            }
+            if (!takenEmails.add(normalizeEmail(employee.getEmail()))) {
+                results.add(BatchItemResult.builder()
+                        .index(index)
+                        .email(employee.getEmail())
+                        .status(BatchItemResult.Status.DUPLICATE)
+                        .message("Employee already exists with given email: " + employee.getEmail())
+                        .build());
+                continue;
+            }
+
+            employee.setId(null);
+            Employee savedEmployee = employeeRepository.save(employee);
+            savedEmployees.add(savedEmployee);
+            onSaved.accept(savedEmployee, index);
+            results.add(BatchItemResult.builder()
+                    .index(index)
+                    .email(savedEmployee.getEmail())
+                    .status(BatchItemResult.Status.CREATED)
+                    .id(savedEmployee.getId())
+                    .build());
+            if (batchSize > 0 && ++pending % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        if (!savedEmployees.isEmpty()) {
+            eventPublisher.publishEvent(EmployeeChangedEvent.created(savedEmployees));
+        }
+        return results;
+    }
+
+    public static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String constraintName = ((ConstraintViolationException) cause).getConstraintName();
+                if (constraintName != null
+                        && constraintName.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_CONSTRAINT)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
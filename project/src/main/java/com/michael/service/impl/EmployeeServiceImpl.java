@@ -1,48 +1,242 @@
 package com.michael.service.impl;
 
+import com.michael.config.CacheConfig;
+import com.michael.dto.BatchItemResult;
+import com.michael.dto.EmployeeField;
+import com.michael.event.EmployeeChangedEvent;
 import com.michael.exception.ResourceNotFoundException;
 import com.michael.model.Employee;
 import com.michael.repository.EmployeeRepository;
 import com.michael.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
+    private static final Sort NAME_ORDER = Sort.by("lastName", "firstName", "id");
+
     @Autowired
     private EmployeeRepository employeeRepository;
-
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private EmployeeBatchWriter batchWriter;
+    // only present when employee.write-behind.enabled=true
+    @Autowired(required = false)
+    private EmployeeWriteBehindQueue writeBehindQueue;
+    // no read-before-write: the unique email constraint rejects duplicates, including concurrent ones.
+    // With the write-behind queue the employee is committed together with other creates, unless the caller
+    // already runs a transaction of its own
     @Override
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES, key = "#result.id")
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if (savedEmployee.isPresent()) {
-            throw new ResourceNotFoundException("Employee already exists with given email: " + employee.getEmail());
+        if (writeBehindQueue != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            Optional<Employee> committedEmployee = writeBehindQueue.save(employee);
+            if (committedEmployee.isPresent()) {
+                return committedEmployee.get();
+            }
+        }
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.save(employee);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, employee);
         }
-        return employeeRepository.save(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(List.of(savedEmployee)));
+        return savedEmployee;
     }
 
+    // new ids may still have a short-lived negative entry, and batches are rare, so the whole cache is dropped.
+    // An email taken by a concurrent request after the duplicate check rolls the batch back; it is written again,
+    // and the new duplicate check reports that email per item
     @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, allEntries = true)
+    public List<BatchItemResult> saveEmployees(List<Employee> employees) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return batchWriter.write(employees);
+            } catch (DataIntegrityViolationException e) {
+                if (!EmployeeBatchWriter.isDuplicateEmail(e)) {
+                    throw e;
+                }
+                if (attempt == EmployeeBatchWriter.MAX_ATTEMPTS) {
+                    throw new ResourceNotFoundException(
+                            "Employee batch kept conflicting with concurrent creates of the same emails", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<Employee> getEmployeesAfter(long afterId, int limit) {
+        return employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    // ordered like the (last_name, first_name) index so MySQL can read the range without a filesort
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Employee> searchEmployees(String firstName, String lastName, int page, int size) {
+        return employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(
+                lastName == null ? "" : lastName,
+                firstName == null ? "" : firstName,
+                PageRequest.of(page, size, NAME_ORDER));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> getEmployeeFieldsAfter(long afterId, int limit, Set<EmployeeField> fields) {
+        return employeeRepository.findFieldsByIdGreaterThan(afterId, fields, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> searchEmployeeFields(String firstName, String lastName, int page, int size,
+                                                           Set<EmployeeField> fields) {
+        return employeeRepository.findFieldsByNamePrefix(
+                lastName == null ? "" : lastName,
+                firstName == null ? "" : firstName,
+                fields, PageRequest.of(page, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getEmployeeFieldsById(long id, Set<EmployeeField> fields) {
+        return employeeRepository.findFieldsById(id, fields);
+    }
+
+    // rows are detached as soon as they are handed over, so the persistence context stays empty during the scan
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<Employee> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                entityManager.detach(employee);
+                consumer.accept(employee);
+            });
+        }
+    }
+
+    // misses are cached too (briefly, see CacheConfig) so repeated lookups of unknown ids skip the database.
+    // Read-write on purpose (findById alone would run read-only): what is loaded here is cached for every client
+    // and serves ETags and If-Match checks, so misses are loaded from the primary, never from a lagging replica
+    @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES, key = "#id")
     public Optional<Employee> getEmployeeById(long id) {
         return employeeRepository.findById(id);
     }
 
+    // a cached employee already carries its version; otherwise only the version column is read. Not read-only:
+    // it guards conditional writes, so it must see the primary rather than a lagging replica
     @Override
+    public Optional<Long> getEmployeeVersion(long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES);
+        Cache.ValueWrapper cached = cache == null ? null : cache.get(id);
+        if (cached != null) {
+            return Optional.ofNullable((Employee) cached.get()).map(Employee::getVersion);
+        }
+        return employeeRepository.findVersionById(id);
+    }
+
+    // a stale version fails in merge with an OptimisticLockingFailureException
+    @Override
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES, key = "#result.id")
     public Employee updateEmployee(Employee updatedEmployee) {
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.save(updatedEmployee);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, updatedEmployee);
+        }
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(savedEmployee));
+        return savedEmployee;
+    }
 
+    // single UPDATE without loading the row first; false when no employee has this id.
+    // The existence check only runs when a versioned update matched nothing
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id")
+    public boolean patchEmployee(long id, Employee changes, Long expectedVersion) {
+        int updatedRows;
+        try {
+            updatedRows = employeeRepository.patchById(id, changes, expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, changes);
+        }
+        if (updatedRows == 0 && expectedVersion != null && employeeRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException(
+                    "Employee with id: " + id + " is no longer at version " + expectedVersion);
+        }
+        if (updatedRows > 0) {
+            // the new version is only known from If-Match; reading it back would cost a statement
+            Long version = expectedVersion == null ? null : expectedVersion + 1;
+            eventPublisher.publishEvent(EmployeeChangedEvent.patched(id, changes, version));
+        }
+        return updatedRows > 0;
+    }
 
-        return employeeRepository.save(updatedEmployee);
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id")
+    public boolean deleteEmployee(long id) {
+        boolean deleted = employeeRepository.deleteEmployeeById(id) > 0;
+        if (deleted) {
+            eventPublisher.publishEvent(EmployeeChangedEvent.deleted(List.of(id)));
+        }
+        return deleted;
     }
 
+    // only the ids that existed are published, so unknown ids do not flood the change feed
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, allEntries = true)
+    public int deleteEmployees(Collection<Long> ids) {
+        List<Long> existingIds = employeeRepository.lockExistingIds(ids);
+        if (existingIds.isEmpty()) {
+            return 0;
+        }
+        int deleted = employeeRepository.deleteEmployeesByIds(existingIds);
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(existingIds));
+        return deleted;
+    }
+
+    private static RuntimeException translateDuplicateEmail(DataIntegrityViolationException e, Employee employee) {
+        if (EmployeeBatchWriter.isDuplicateEmail(e)) {
+            return new ResourceNotFoundException("Employee already exists with given email: " + employee.getEmail(), e);
+        }
+        return e;
     }
 }
@@ -0,0 +1,213 @@
+package com.michael.service.impl;
+
+import com.michael.dto.BatchItemResult;
+import com.michael.exception.ResourceNotFoundException;
+import com.michael.model.Employee;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// group commit for single creates: callers wait in a bounded queue while one committer thread writes the
+// waiting employees in a single transaction, once batch-size of them are queued or the oldest waited max-delay.
+// A caller returns only after that transaction committed. Items the batch cannot decide on (invalid ones, or
+// a whole batch that failed) come back empty and are saved by the caller on its own, as without this queue.
+// A caller waits at most commit-timeout for its batch to start; an employee whose caller gave up before that is
+// skipped, once its batch started the caller waits for the outcome
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.write-behind.enabled", havingValue = "true")
+public class EmployeeWriteBehindQueue {
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Autowired
+    private EmployeeBatchWriter batchWriter;
+
+    @Value("${employee.write-behind.batch-size:100}")
+    private int batchSize;
+    @Value("${employee.write-behind.max-delay:5ms}")
+    private Duration maxDelay;
+    @Value("${employee.write-behind.queue-capacity:1000}")
+    private int queueCapacity;
+    @Value("${employee.write-behind.commit-timeout:10s}")
+    private Duration commitTimeout;
+
+    private BlockingQueue<PendingEmployee> queue;
+    private Thread committer;
+    // callers check running and enqueue under the read lock, stop() clears it under the write lock, so
+    // nothing is enqueued after the committer saw running turn false
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        committer = new Thread(this::run, "employee-write-behind");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // stops taking new employees and commits the ones already queued
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        committer.join(TimeUnit.SECONDS.toMillis(30));
+        // only left over when the committer did not finish in time; their callers save them on their own
+        releaseQueued();
+    }
+
+    // blocks until the employee is committed; empty when the caller has to save it itself
+    public Optional<Employee> save(Employee employee) {
+        PendingEmployee pending = new PendingEmployee(employee);
+        runningLock.readLock().lock();
+        try {
+            if (!running) {
+                return Optional.empty();
+            }
+            if (!queue.offer(pending)) {
+                throw new TaskRejectedException("Write-behind queue is full (" + queueCapacity + " employees)");
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        try {
+            return pending.committed.get(commitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            if (pending.take()) {
+                throw new TaskRejectedException("Write-behind commit did not finish within " + commitTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.take()) {
+                throw new TaskRejectedException("Interrupted while waiting for the write-behind commit");
+            }
+        }
+        // the committer took it first, so its batch is running and may commit it: the caller waits for the
+        // outcome rather than report a failure for a row that turns out to be written
+        try {
+            return pending.committed.join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+
+    private void run() {
+        List<PendingEmployee> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEmployee first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null || !first.take()) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedNanos + maxDelay.toNanos();
+                while (batch.size() < batchSize) {
+                    PendingEmployee next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.take()) {
+                        batch.add(next);
+                    }
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                // taken but not written; their callers save them on their own
+                batch.forEach(pending -> pending.committed.complete(Optional.empty()));
+            } catch (RuntimeException e) {
+                log.error("Write-behind batch of {} employees failed unexpectedly", batch.size(), e);
+                batch.forEach(pending -> pending.committed.complete(Optional.empty()));
+            } finally {
+                batch.clear();
+            }
+        }
+        // only left over when interrupted; their callers save them on their own
+        releaseQueued();
+    }
+
+    private void releaseQueued() {
+        PendingEmployee pending;
+        while ((pending = queue.poll()) != null) {
+            pending.committed.complete(Optional.empty());
+        }
+    }
+
+    private void commit(List<PendingEmployee> batch) {
+        List<Employee> employees = new ArrayList<>(batch.size());
+        batch.forEach(pending -> employees.add(pending.employee));
+        Employee[] savedEmployees = new Employee[batch.size()];
+        List<BatchItemResult> results;
+        try {
+            results = batchWriter.write(employees, (savedEmployee, index) -> savedEmployees[index] = savedEmployee);
+        } catch (RuntimeException e) {
+            // typically an email taken by a concurrent request after the duplicate check; saved one by one,
+            // only the request with that email fails
+            log.debug("Write-behind batch of {} employees rolled back, saving them one by one", batch.size(), e);
+            batch.forEach(pending -> pending.committed.complete(Optional.empty()));
+            return;
+        }
+        for (int index = 0; index < batch.size(); index++) {
+            PendingEmployee pending = batch.get(index);
+            BatchItemResult result = results.get(index);
+            switch (result.getStatus()) {
+                case CREATED:
+                    pending.committed.complete(Optional.of(savedEmployees[index]));
+                    break;
+                case DUPLICATE:
+                    pending.committed.completeExceptionally(new ResourceNotFoundException(result.getMessage()));
+                    break;
+                default:
+                    pending.committed.complete(Optional.empty());
+            }
+        }
+    }
+
+    private static final class PendingEmployee {
+        private final Employee employee;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<Optional<Employee>> committed = new CompletableFuture<>();
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        private PendingEmployee(Employee employee) {
+            this.employee = employee;
+        }
+
+        // true for whoever takes it first: the committer for a batch, or the caller giving up
+        private boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
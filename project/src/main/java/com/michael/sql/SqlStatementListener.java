@@ -0,0 +1,66 @@
+package com.michael.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// replaces spring.jpa.show-sql: every execution is counted against the current SqlStatementStats, and only
+// executions slower than the threshold are logged. Bind values are logged by type only, never by value
+@Slf4j
+@Component
+public class SqlStatementListener implements QueryExecutionListener {
+    private static final String STARTED_AT = "sqlStartedAt";
+
+    @Value("${employee.sql.slow-query-threshold-ms:200}")
+    private long slowQueryThresholdMs;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    // a JDBC batch is one round trip, so it counts as one statement
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedNanos = System.nanoTime() - execInfo.getCustomValue(STARTED_AT, Long.class);
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null && !queryInfoList.isEmpty()) {
+            stats.record(QueryUtils.getQueryType(queryInfoList.get(0).getQuery()), elapsedNanos);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMs >= slowQueryThresholdMs && log.isWarnEnabled()) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("Slow SQL ({} ms{}): {} params {}", elapsedMs,
+                        execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                        queryInfo.getQuery(), parameterShapes(queryInfo));
+            }
+        }
+    }
+
+    // the bind types of the first parameter set, e.g. [Long, String]; batches repeat the same shape
+    private static List<String> parameterShapes(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        return queryInfo.getParametersList().get(0).stream()
+                .map(SqlStatementListener::shape)
+                .collect(Collectors.toList());
+    }
+
+    private static String shape(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        return args[1].getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,84 @@
+package com.michael.sql;
+
+import net.ttddyy.dsproxy.QueryType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// JDBC statements run on behalf of one unit of work, usually an HTTP request (see SqlStatementFilter).
+// Bound to the current thread; the async bulkheads carry it over to their workers with propagate()
+public class SqlStatementStats {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicIntegerArray statements = new AtomicIntegerArray(QueryType.values().length);
+    private final AtomicLong nanos = new AtomicLong();
+
+    // null when nothing is being counted on this thread
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static SqlStatementStats bind(SqlStatementStats stats) {
+        SqlStatementStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    public static void restore(SqlStatementStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    // counts the statements the call issues, e.g. to assert that an operation needs a single query
+    public static <T> SqlStatementStats capture(Supplier<T> call) {
+        SqlStatementStats stats = new SqlStatementStats();
+        SqlStatementStats previous = bind(stats);
+        try {
+            call.get();
+        } finally {
+            restore(previous);
+        }
+        return stats;
+    }
+
+    public static Runnable propagate(Runnable task) {
+        SqlStatementStats stats = current();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementStats previous = bind(stats);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    void record(QueryType type, long elapsedNanos) {
+        statements.incrementAndGet(type.ordinal());
+        nanos.addAndGet(elapsedNanos);
+    }
+
+    public int getStatements() {
+        int total = 0;
+        for (int i = 0; i < statements.length(); i++) {
+            total += statements.get(i);
+        }
+        return total;
+    }
+
+    public int getStatements(QueryType type) {
+        return statements.get(type.ordinal());
+    }
+
+    public long getTime(TimeUnit unit) {
+        return unit.convert(nanos.get(), TimeUnit.NANOSECONDS);
+    }
+}
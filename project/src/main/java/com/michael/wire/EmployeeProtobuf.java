@@ -0,0 +1,111 @@
+package com.michael.wire;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.michael.model.Employee;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// hand-written codec for src/main/resources/proto/employee.proto; unknown fields are skipped,
+// so consumers with a newer schema can still talk to us
+public final class EmployeeProtobuf {
+    private static final int ID = 1;
+    private static final int FIRST_NAME = 2;
+    private static final int LAST_NAME = 3;
+    private static final int EMAIL = 4;
+    private static final int VERSION = 5;
+    private static final int EMPLOYEES = 1;
+
+    private EmployeeProtobuf() {
+    }
+
+    public static void writeEmployee(Employee employee, CodedOutputStream out) throws IOException {
+        if (employee.getId() != null) {
+            out.writeInt64(ID, employee.getId());
+        }
+        if (employee.getFirstName() != null) {
+            out.writeString(FIRST_NAME, employee.getFirstName());
+        }
+        if (employee.getLastName() != null) {
+            out.writeString(LAST_NAME, employee.getLastName());
+        }
+        if (employee.getEmail() != null) {
+            out.writeString(EMAIL, employee.getEmail());
+        }
+        if (employee.getVersion() != 0) {
+            out.writeInt64(VERSION, employee.getVersion());
+        }
+    }
+
+    // every employee is prefixed with its length, as embedded messages are
+    public static void writeEmployeeList(List<Employee> employees, CodedOutputStream out) throws IOException {
+        for (Employee employee : employees) {
+            out.writeTag(EMPLOYEES, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(employeeSize(employee));
+            writeEmployee(employee, out);
+        }
+    }
+
+    public static Employee readEmployee(CodedInputStream in) throws IOException {
+        Employee employee = new Employee();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case ID:
+                    employee.setId(in.readInt64());
+                    break;
+                case FIRST_NAME:
+                    employee.setFirstName(in.readStringRequireUtf8());
+                    break;
+                case LAST_NAME:
+                    employee.setLastName(in.readStringRequireUtf8());
+                    break;
+                case EMAIL:
+                    employee.setEmail(in.readStringRequireUtf8());
+                    break;
+                case VERSION:
+                    employee.setVersion(in.readInt64());
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+        return employee;
+    }
+
+    public static List<Employee> readEmployeeList(CodedInputStream in) throws IOException {
+        List<Employee> employees = new ArrayList<>();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            if (WireFormat.getTagFieldNumber(tag) != EMPLOYEES) {
+                in.skipField(tag);
+                continue;
+            }
+            int limit = in.pushLimit(in.readRawVarint32());
+            employees.add(readEmployee(in));
+            in.popLimit(limit);
+        }
+        return employees;
+    }
+
+    private static int employeeSize(Employee employee) {
+        int size = 0;
+        if (employee.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(ID, employee.getId());
+        }
+        if (employee.getFirstName() != null) {
+            size += CodedOutputStream.computeStringSize(FIRST_NAME, employee.getFirstName());
+        }
+        if (employee.getLastName() != null) {
+            size += CodedOutputStream.computeStringSize(LAST_NAME, employee.getLastName());
+        }
+        if (employee.getEmail() != null) {
+            size += CodedOutputStream.computeStringSize(EMAIL, employee.getEmail());
+        }
+        if (employee.getVersion() != 0) {
+            size += CodedOutputStream.computeInt64Size(VERSION, employee.getVersion());
+        }
+        return size;
+    }
+}
@@ -0,0 +1,79 @@
+package com.michael.wire;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.michael.model.Employee;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+// application/x-protobuf bodies of Employee and List<Employee>, in both directions; other bodies (batch results,
+// field selections, messages) have no schema and are only offered in the Jackson formats
+public class EmployeeProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public EmployeeProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Employee.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isEmployeeOrList(ResolvableType.forType(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        ResolvableType resolvedType = type == null ? ResolvableType.forClass(clazz) : ResolvableType.forType(type);
+        return isEmployeeOrList(resolvedType) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody());
+        try {
+            return isList(ResolvableType.forType(type))
+                    ? EmployeeProtobuf.readEmployeeList(in)
+                    : EmployeeProtobuf.readEmployee(in);
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf employee: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof Employee) {
+            EmployeeProtobuf.writeEmployee((Employee) body, out);
+        } else {
+            EmployeeProtobuf.writeEmployeeList((List<Employee>) body, out);
+        }
+        out.flush();
+    }
+
+    private static boolean isEmployeeOrList(ResolvableType type) {
+        return type.toClass() == Employee.class || isList(type);
+    }
+
+    private static boolean isList(ResolvableType type) {
+        return List.class.isAssignableFrom(type.toClass()) && type.getGeneric(0).toClass() == Employee.class;
+    }
+}
@@ -0,0 +1,14 @@
+-- the MySQL layout Hibernate creates for Employee, including the table behind the pooled employees_seq generator
+create table if not exists employees (
+    id bigint not null primary key,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    version bigint not null,
+    constraint uk_employees_email unique (email)
+);
+create index if not exists idx_employees_last_first on employees (last_name, first_name);
+create table if not exists employees_seq (next_val bigint);
+-- seeded past existing ids: a block read at next_val v is (v - 50, v]
+insert into employees_seq select seeded.next_val from (select coalesce(max(id), 0) + 50 as next_val from employees) seeded
+    where not exists (select * from employees_seq);
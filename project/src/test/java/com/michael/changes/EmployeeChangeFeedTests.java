@@ -0,0 +1,116 @@
+package com.michael.changes;
+
+import com.michael.event.EmployeeChangedEvent;
+import com.michael.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeChangeFeedTests {
+    private static final long WAIT_MILLIS = 5000;
+
+    private EmployeeChangeFeed changeFeed;
+
+    @BeforeEach
+    public void setup() {
+        changeFeed = new EmployeeChangeFeed();
+        ReflectionTestUtils.setField(changeFeed, "bufferSize", 10);
+        ReflectionTestUtils.setField(changeFeed, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(changeFeed, "senderThreads", 1);
+        ReflectionTestUtils.setField(changeFeed, "heartbeat", Duration.ofHours(1));
+        ReflectionTestUtils.setField(changeFeed, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(changeFeed, "sendTimeout", Duration.ofMillis(200));
+        changeFeed.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        changeFeed.stop();
+    }
+
+    //Junit test for a subscriber that stopped reading
+    @Test
+    @DisplayName("Junit test for a stalled subscriber, it is dropped and the others keep receiving changes")
+    public void givenStalledSubscriber_whenEmployeesChange_thenOtherSubscribersStillReceiveChanges() throws Exception {
+        //given - precondition or setup
+        CountDownLatch release = new CountDownLatch(1);
+        StalledEmitter stalled = new StalledEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter();
+        changeFeed.subscribe(null, stalled);
+        stalled.stall = true;
+        changeFeed.subscribe(null, healthy);
+        healthy.recording = true;
+
+        // when -action or the behavior we are going to test
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.created(List.of(Employee.builder().id(1L).build())));
+
+        //then - verify the output
+        assertThat(await(() -> healthy.events.size() == 1)).isTrue();
+        ThreadPoolExecutor sender = (ThreadPoolExecutor) ReflectionTestUtils.getField(changeFeed, "sender");
+        assertThat(await(() -> sender.getCorePoolSize() == 2)).isTrue();
+        release.countDown();
+        assertThat(await(() -> sender.getCorePoolSize() == 1)).isTrue();
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(List.of(1L)));
+        assertThat(await(() -> healthy.events.size() == 2)).isTrue();
+        assertThat(stalled.writes).isEqualTo(1);
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    // a client whose socket buffer is full: every write after stall blocks until released
+    private static class StalledEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private volatile boolean stall;
+        private volatile int writes;
+
+        private StalledEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (!stall) {
+                return;
+            }
+            writes++;
+            try {
+                release.await(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // records what is sent once the subscription is open
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (recording) {
+                events.add(builder);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.michael.controller;
+
+import com.michael.config.AsyncConfig;
+import com.michael.config.IdempotencyConfig;
+import com.michael.model.Employee;
+import com.michael.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AsyncEmployeeController.class, properties = {
+        "employee.async.enabled=true",
+        "employee.async.read.pool-size=1",
+        "employee.async.read.queue-capacity=0",
+        "employee.async.write.pool-size=1",
+        "employee.async.write.queue-capacity=0"})
+@Import({AsyncConfig.class, IdempotencyConfig.class})
+public class AsyncEmployeeControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+
+    //Junit test for async get employee by id Rest Api
+    @Test
+    @DisplayName("Junit test for async get employee by id Rest Api")
+    public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeAsynchronously() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        // when -action or the behavior we are going to test
+        MvcResult started = mockMvc.perform(get("/api/employees/{id}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then - verify the output
+        mockMvc.perform(asyncDispatch(started))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is("michael@gmail.com")));
+    }
+
+    //Junit test for a saturated write bulkhead
+    @Test
+    @DisplayName("Junit test for a saturated write bulkhead: writes get 503, reads still run")
+    public void givenBusyWriteBulkhead_whenMoreRequests_thenRejectWritesButServeReads() throws Exception {
+        //given - precondition or setup
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.deleteEmployees(any())).willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.empty());
+
+        try {
+            // when -action or the behavior we are going to test
+            MvcResult slowWrite = mockMvc.perform(delete("/api/employees").param("ids", "1"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(delete("/api/employees").param("ids", "2"))
+                    //then - verify the output
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+            MvcResult read = mockMvc.perform(get("/api/employees/{id}", 1L))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(read))
+                    .andExpect(status().isNotFound());
+
+            release.countDown();
+            mockMvc.perform(asyncDispatch(slowWrite))
+                    .andExpect(status().isOk());
+        } finally {
+            release.countDown();
+        }
+    }
+}
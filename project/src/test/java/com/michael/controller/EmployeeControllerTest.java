@@ -1,32 +1,68 @@
 package com.michael.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.michael.changes.EmployeeChangeFeed;
+import com.michael.config.IdempotencyConfig;
+import com.michael.dto.BatchItemResult;
+import com.michael.dto.EmployeeField;
+import com.michael.idempotency.IdempotentRequests;
+import com.michael.importing.EmployeeImporter;
 import com.michael.model.Employee;
+import com.michael.search.EmployeeSearchIndex;
 import com.michael.service.EmployeeService;
+import com.michael.wire.EmployeeProtobuf;
+import com.michael.wire.EmployeeProtobufHttpMessageConverter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest
+@Import(IdempotencyConfig.class)
 public class EmployeeControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -34,6 +70,15 @@ public class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeSearchIndex searchIndex;
+
+    @MockBean
+    private EmployeeImporter employeeImporter;
+
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -66,6 +111,36 @@ public class EmployeeControllerTest {
     }
 
 
+    //Junit test for batch create Employees Rest Api
+    @Test
+    @DisplayName("Junit test for batch create Employees Rest Api")
+    public void givenEmployeeList_whenCreateEmployees_thenReturnResultPerItem() throws Exception {
+        //given - precondition or setup
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().firstName("Michael").lastName("Royf").email("michael@gmail.com").build(),
+                Employee.builder().firstName("Anna").lastName("Royf").email("michael@gmail.com").build());
+        given(employeeService.saveEmployees(ArgumentMatchers.anyList()))
+                .willReturn(List.of(
+                        BatchItemResult.builder().index(0).email("michael@gmail.com")
+                                .status(BatchItemResult.Status.CREATED).id(1L).build(),
+                        BatchItemResult.builder().index(1).email("michael@gmail.com")
+                                .status(BatchItemResult.Status.DUPLICATE).build()));
+
+        // when - action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(listOfEmployees)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].status", is("DUPLICATE")));
+    }
+
+
     //Junit test for get all Employees Rest Api
     @Test
     @DisplayName("Junit test for get all Employees Rest Api")
@@ -83,8 +158,8 @@ public class EmployeeControllerTest {
                 .email("anna@gmail.com")
                 .build());
 
-        given(employeeService.getAllEmployees())
-                .willReturn(listOfEmployees);
+        given(employeeService.getEmployeesAfter(0L, 50))
+                .willReturn(new SliceImpl<>(listOfEmployees, PageRequest.of(0, 50), false));
 
         // when -action or the behavior we are going to test
         ResultActions response = mockMvc.perform(get("/api/employees"));
@@ -92,7 +167,179 @@ public class EmployeeControllerTest {
         //then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print())
-                .andExpect(jsonPath("$.size()", is(listOfEmployees.size())));
+                .andExpect(jsonPath("$.size()", is(listOfEmployees.size())))
+                .andExpect(header().doesNotExist(EmployeeController.NEXT_CURSOR_HEADER));
+    }
+
+    //Junit test for get all Employees Rest Api with a next page
+    @Test
+    @DisplayName("Junit test for get all Employees Rest Api, next page cursor")
+    public void givenMoreEmployeesThanLimit_whenGetAllEmployees_thenReturnNextCursor() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(7L)
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
+        given(employeeService.getEmployeesAfter(0L, 1))
+                .willReturn(new SliceImpl<>(List.of(employee), PageRequest.of(0, 1), true));
+
+        // when -action or the behavior we are going to test
+        String cursor = mockMvc.perform(get("/api/employees").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(EmployeeController.NEXT_CURSOR_HEADER, notNullValue()))
+                .andReturn().getResponse().getHeader(EmployeeController.NEXT_CURSOR_HEADER);
+        given(employeeService.getEmployeesAfter(7L, 1))
+                .willReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1), false));
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("limit", "1")
+                .param("after", cursor));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(0)));
+    }
+
+    //Junit test for get all Employees Rest Api with a malformed cursor
+    @Test
+    @DisplayName("Junit test for get all Employees Rest Api, invalid cursor")
+    public void givenInvalidCursor_whenGetAllEmployees_thenReturn400() throws Exception {
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("after", "not-a-cursor"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    //Junit test for get all Employees Rest Api with a sparse fieldset
+    @Test
+    @DisplayName("Junit test for get all Employees Rest Api, sparse fieldset")
+    public void givenFields_whenGetAllEmployees_thenReturnOnlyThoseFields() throws Exception {
+        //given - precondition or setup
+        Set<EmployeeField> fields = EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 7L);
+        row.put("email", "michael@gmail.com");
+        given(employeeService.getEmployeeFieldsAfter(0L, 1, fields))
+                .willReturn(new SliceImpl<>(List.of(row), PageRequest.of(0, 1), true));
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("limit", "1")
+                .param("fields", "email"));
+        ResultActions unknownField = mockMvc.perform(get("/api/employees").param("fields", "salary"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email", is("michael@gmail.com")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist())
+                .andExpect(header().string(EmployeeController.NEXT_CURSOR_HEADER, notNullValue()));
+        unknownField.andExpect(status().isBadRequest());
+        verify(employeeService, never()).getEmployeesAfter(anyLong(), anyInt());
+    }
+
+    //Junit test for search Employees Rest Api
+    @Test
+    @DisplayName("Junit test for search Employees Rest Api")
+    public void givenNamePrefix_whenSearchEmployees_thenReturnPageWithNextPageHeader() throws Exception {
+        //given - precondition or setup
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().id(1L).firstName("Michael").lastName("Royf").email("michael@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Michael").lastName("Royf").email("mr@gmail.com").build());
+        given(employeeService.searchEmployees("Michael", "Royf", 0, 2))
+                .willReturn(new SliceImpl<>(listOfEmployees, PageRequest.of(0, 2), true));
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("firstName", "Michael")
+                .param("lastName", "Royf")
+                .param("size", "2"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(header().string(EmployeeController.NEXT_PAGE_HEADER, "1"));
+    }
+
+    //Junit test for search Employees Rest Api without names
+    @Test
+    @DisplayName("Junit test for search Employees Rest Api, no name given")
+    public void givenNoName_whenSearchEmployees_thenReturn400() throws Exception {
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    //Junit test for export Employees Rest Api
+    @Test
+    @DisplayName("Junit test for export Employees Rest Api, ndjson and csv")
+    public void givenEmployees_whenExportEmployees_thenStreamEveryRow() throws Exception {
+        //given - precondition or setup
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().id(1L).firstName("Michael").lastName("Royf").email("michael@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Anna").lastName("Royf, Jr").email("anna@gmail.com").build());
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            listOfEmployees.forEach(consumer);
+            return null;
+        }).given(employeeService).exportEmployees(any());
+
+        // when -action or the behavior we are going to test
+        ResultActions ndjson = mockMvc.perform(get("/api/employees/export"));
+        ResultActions csv = mockMvc.perform(get("/api/employees/export").param("format", "csv"));
+
+        //then - verify the output
+        ndjson.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"email\":\"michael@gmail.com\",\"version\":0}\n{")));
+        csv.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(is("id,firstName,lastName,email\r\n"
+                        + "1,Michael,Royf,michael@gmail.com\r\n"
+                        + "2,Anna,\"Royf, Jr\",anna@gmail.com\r\n")));
+    }
+
+    //Junit test for export Employees Rest Api with an unknown format
+    @Test
+    @DisplayName("Junit test for export Employees Rest Api, unsupported format")
+    public void givenUnknownFormat_whenExportEmployees_thenReturn400() throws Exception {
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/export").param("format", "xml"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    //Junit test for suggest Employees Rest Api
+    @Test
+    @DisplayName("Junit test for suggest Employees Rest Api")
+    public void givenQuery_whenSuggestEmployees_thenReturnIndexMatchesWithoutDatabase() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Michael").lastName("Royf").email("michael@gmail.com").build();
+        given(searchIndex.suggest("mich", 5)).willReturn(List.of(employee));
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/suggest").param("q", "mich").param("limit", "5"));
+        ResultActions blank = mockMvc.perform(get("/api/employees/suggest").param("q", " "));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is("michael@gmail.com")));
+        blank.andExpect(status().isBadRequest());
+        verify(employeeService, never()).searchEmployees(any(), any(), anyInt(), anyInt());
     }
 
     //positive scenario - valid employee id
@@ -206,6 +453,194 @@ public class EmployeeControllerTest {
     }
 
 
+    //Junit test for patch REST API - positive scenario
+    @Test
+    @DisplayName("Junit test for patch REST API - positive scenario")
+    public void givenChanges_whenPatchEmployee_thenReturn200() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class), isNull())).willReturn(true);
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"MICHAEL@gmail.com\"}"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk());
+        verify(employeeService, never()).getEmployeeById(anyLong());
+    }
+
+    //Junit test for patch REST API - negative scenario
+    @Test
+    @DisplayName("Junit test for patch REST API - negative scenario")
+    public void givenUnknownId_whenPatchEmployee_thenReturn404() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class), isNull())).willReturn(false);
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"MICHAEL\"}"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    //Junit test for patch REST API - nothing to change
+    @Test
+    @DisplayName("Junit test for patch REST API - empty or blank changes")
+    public void givenNoChanges_whenPatchEmployee_thenReturn400() throws Exception {
+        // when -action or the behavior we are going to test
+        ResultActions empty = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"));
+        ResultActions blank = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastName\":\" \"}"));
+
+        //then - verify the output
+        empty.andExpect(status().isBadRequest());
+        blank.andExpect(status().isBadRequest());
+        verify(employeeService, never()).patchEmployee(anyLong(), any(Employee.class), any());
+    }
+
+    //Junit test for conditional get REST API
+    @Test
+    @DisplayName("Junit test for conditional get REST API")
+    public void givenCurrentETag_whenGetEmployeeById_thenReturn304WithoutLoadingEmployee() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getEmployeeById(anyLong());
+    }
+
+    //Junit test for update REST API - stale If-Match
+    @Test
+    @DisplayName("Junit test for update REST API - stale If-Match")
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder()
+                .id(employeeId)
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .version(4L)
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).updateEmployee(any(Employee.class));
+    }
+
+    //Junit test for patch REST API - If-Match
+    @Test
+    @DisplayName("Junit test for patch REST API - If-Match")
+    public void givenIfMatch_whenPatchEmployee_thenReturnNextETagOr412() throws Exception {
+        //given - precondition or setup
+        given(employeeService.patchEmployee(eq(1L), any(Employee.class), eq(3L))).willReturn(true);
+        given(employeeService.patchEmployee(eq(2L), any(Employee.class), eq(3L)))
+                .willThrow(new OptimisticLockingFailureException("stale"));
+
+        // when -action or the behavior we are going to test
+        ResultActions patched = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"MICHAEL\"}"));
+        ResultActions conflicting = mockMvc.perform(patch("/api/employees/{id}", 2L)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"MICHAEL\"}"));
+
+        //then - verify the output
+        patched.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        conflicting.andExpect(status().isPreconditionFailed());
+    }
+
+    //Junit test for update REST API - If-Match list
+    @Test
+    @DisplayName("Junit test for update REST API - If-Match list naming the current version")
+    public void givenIfMatchList_whenUpdateEmployee_thenReturnUpdatedEmployee() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder()
+                .id(employeeId)
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .version(2L)
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willAnswer(invocation -> {
+                    Employee updatedEmployee = invocation.getArgument(0);
+                    updatedEmployee.setVersion(3L);
+                    return updatedEmployee;
+                });
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"1\", W/\"5\", \"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    //Junit test for patch REST API - If-Match list
+    @Test
+    @DisplayName("Junit test for patch REST API - If-Match list, each listed version is tried")
+    public void givenIfMatchList_whenPatchEmployee_thenPatchAtListedVersion() throws Exception {
+        //given - precondition or setup
+        given(employeeService.patchEmployee(eq(1L), any(Employee.class), eq(1L)))
+                .willThrow(new OptimisticLockingFailureException("stale"));
+        given(employeeService.patchEmployee(eq(1L), any(Employee.class), eq(2L))).willReturn(true);
+        given(employeeService.patchEmployee(eq(2L), any(Employee.class), anyLong()))
+                .willThrow(new OptimisticLockingFailureException("stale"));
+
+        // when -action or the behavior we are going to test
+        ResultActions patched = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"1\", \"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"MICHAEL\"}"));
+        ResultActions conflicting = mockMvc.perform(patch("/api/employees/{id}", 2L)
+                .header(HttpHeaders.IF_MATCH, "\"1\", \"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"MICHAEL\"}"));
+
+        //then - verify the output
+        patched.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        conflicting.andExpect(status().isPreconditionFailed());
+        verify(employeeService, times(2)).patchEmployee(eq(2L), any(Employee.class), anyLong());
+    }
+
     //Junit test for delete REST API
     @Test
     @DisplayName("Junit test for delete REST API")
@@ -213,7 +648,7 @@ public class EmployeeControllerTest {
 
         //given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         // when -action or the behavior we are going to test
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
@@ -223,4 +658,147 @@ public class EmployeeControllerTest {
                 .andExpect(status().isOk());
     }
 
+    //Junit test for delete REST API - negative scenario
+    @Test
+    @DisplayName("Junit test for delete REST API - negative scenario")
+    public void givenUnknownEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    //Junit test for bulk delete REST API
+    @Test
+    @DisplayName("Junit test for bulk delete REST API")
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        //given - precondition or setup
+        given(employeeService.deleteEmployees(Set.of(1L, 2L, 3L))).willReturn(2);
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("ids", "1,2,3"));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string("2 of 3 employees were deleted"));
+    }
+
+    //Junit test for get Employee by id REST API in CBOR
+    @Test
+    @DisplayName("Junit test for get Employee by id REST API - CBOR, JSON by default")
+    public void givenAcceptCbor_whenGetEmployeeById_thenReturnCborAndJsonOtherwise() throws Exception {
+        //given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when -action or the behavior we are going to test
+        byte[] cbor = mockMvc.perform(get("/api/employees/{id}", employeeId).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId));
+
+        //then - verify the output
+        Employee decoded = new ObjectMapper(new CBORFactory()).readValue(cbor, Employee.class);
+        assertThat(decoded.getEmail()).isEqualTo(employee.getEmail());
+        assertThat(decoded.getId()).isEqualTo(employeeId);
+        response.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+    }
+
+    //Junit test for create Employee REST API in Protobuf
+    @Test
+    @DisplayName("Junit test for create Employee REST API - Protobuf")
+    public void givenProtobufEmployee_whenCreateEmployee_thenReturnProtobufEmployee() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer((invocation) -> {
+                    Employee saved = invocation.getArgument(0);
+                    saved.setId(7L);
+                    return saved;
+                });
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(body);
+        EmployeeProtobuf.writeEmployee(employee, out);
+        out.flush();
+
+        // when -action or the behavior we are going to test
+        byte[] protobuf = mockMvc.perform(post("/api/employees")
+                        .contentType(EmployeeProtobufHttpMessageConverter.PROTOBUF)
+                        .accept(EmployeeProtobufHttpMessageConverter.PROTOBUF)
+                        .content(body.toByteArray()))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(EmployeeProtobufHttpMessageConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        //then - verify the output
+        Employee decoded = EmployeeProtobuf.readEmployee(CodedInputStream.newInstance(protobuf));
+        assertThat(decoded.getId()).isEqualTo(7L);
+        assertThat(decoded.getFirstName()).isEqualTo(employee.getFirstName());
+        assertThat(decoded.getLastName()).isEqualTo(employee.getLastName());
+        assertThat(decoded.getEmail()).isEqualTo(employee.getEmail());
+    }
+
+    //Junit test for create Employee REST API with an Idempotency-Key
+    @Test
+    @DisplayName("Junit test for create Employee REST API - Idempotency-Key retry replayed")
+    public void givenIdempotencyKey_whenCreateEmployeeRetried_thenSaveOnceAndReplay() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer((invocation) -> {
+                    Employee saved = invocation.getArgument(0);
+                    saved.setId(7L);
+                    return saved;
+                });
+        String body = objectMapper.writeValueAsString(employee);
+
+        // when -action or the behavior we are going to test
+        ResultActions first = mockMvc.perform(post("/api/employees")
+                .header(IdempotentRequests.KEY_HEADER, "create-michael")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+        ResultActions retry = mockMvc.perform(post("/api/employees")
+                .header(IdempotentRequests.KEY_HEADER, "create-michael")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+        ResultActions otherBody = mockMvc.perform(post("/api/employees")
+                .header(IdempotentRequests.KEY_HEADER, "create-michael")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.replace("michael@", "anna@")));
+
+        //then - verify the output
+        first.andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER));
+        retry.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id", is(7)))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+        otherBody.andExpect(status().isUnprocessableEntity());
+        verify(employeeService, times(1)).saveEmployee(any(Employee.class));
+    }
+
 }
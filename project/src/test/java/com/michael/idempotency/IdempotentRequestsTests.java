@@ -0,0 +1,196 @@
+package com.michael.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.model.Employee;
+import com.michael.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// two IdempotentRequests over the same table stand for two instances of the application
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdempotentRequestsTests {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String CLIENT = "10.0.0.1";
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    private JpaIdempotencyStore store;
+
+    @BeforeEach
+    public void setup() {
+        store = new JpaIdempotencyStore(repository, Duration.ofMinutes(5), Clock.systemUTC());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        repository.deleteAll();
+    }
+
+    //Junit test for concurrent requests with the same Idempotency-Key
+    @Test
+    @DisplayName("Junit test for concurrent requests with one Idempotency-Key, on this and another instance")
+    public void givenKeyInProgress_whenRetriedConcurrently_thenWriteRunsOnceAndRetriesReplay() throws Exception {
+        //given - precondition or setup
+        IdempotentRequests instance = requests();
+        IdempotentRequests otherInstance = requests();
+        Employee employee = Employee.builder().firstName("Michael").lastName("Royf").email("michael@gmail.com").build();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+        Supplier<ResponseEntity<Employee>> write = () -> {
+            writes.incrementAndGet();
+            writing.countDown();
+            await(release);
+            return new ResponseEntity<>(Employee.builder().id(1L).email(employee.getEmail()).build(), HttpStatus.CREATED);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        // when -action or the behavior we are going to test
+        Future<ResponseEntity<Employee>> first = executor.submit(() ->
+                instance.execute(CLIENT, "key-1", Employee.class, write, "POST", employee));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ResponseEntity<Employee>> sameInstance = executor.submit(() ->
+                instance.execute(CLIENT, "key-1", Employee.class, write, "POST", employee));
+        Future<ResponseEntity<Employee>> otherInstanceRetry = executor.submit(() ->
+                otherInstance.execute(CLIENT, "key-1", Employee.class, write, "POST", employee));
+        Thread.sleep(100);
+        release.countDown();
+        ResponseEntity<Employee> otherRequest = instance.execute(CLIENT, "key-1", Employee.class, write, "POST",
+                Employee.builder().email("anna@gmail.com").build());
+        executor.shutdown();
+
+        //then - verify the output
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        for (Future<ResponseEntity<Employee>> retry : List.of(sameInstance, otherInstanceRetry)) {
+            ResponseEntity<Employee> replayed = retry.get(5, TimeUnit.SECONDS);
+            assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(replayed.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER)).isEqualTo("true");
+            assertThat(replayed.getBody().getId()).isEqualTo(1L);
+        }
+        assertThat(otherRequest.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(writes.get()).isEqualTo(1);
+    }
+
+    //Junit test for two clients that pick the same Idempotency-Key
+    @Test
+    @DisplayName("Junit test for one Idempotency-Key from two clients, each gets its own response")
+    public void givenSameKeyFromTwoClients_whenExecute_thenWriteRunsForEach() {
+        //given - precondition or setup
+        IdempotentRequests instance = requests();
+        AtomicInteger writes = new AtomicInteger();
+        Supplier<ResponseEntity<Employee>> write = () -> new ResponseEntity<>(
+                Employee.builder().id((long) writes.incrementAndGet()).build(), HttpStatus.CREATED);
+
+        // when -action or the behavior we are going to test
+        ResponseEntity<Employee> first = instance.execute(CLIENT, "1", Employee.class, write, "POST");
+        ResponseEntity<Employee> otherClient = instance.execute("10.0.0.2", "1", Employee.class, write, "POST",
+                Employee.builder().email("anna@gmail.com").build());
+        ResponseEntity<Employee> retry = instance.execute(CLIENT, "1", Employee.class, write, "POST");
+
+        //then - verify the output
+        assertThat(first.getBody().getId()).isEqualTo(1L);
+        assertThat(otherClient.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(otherClient.getHeaders().containsKey(IdempotentRequests.REPLAYED_HEADER)).isFalse();
+        assertThat(otherClient.getBody().getId()).isEqualTo(2L);
+        assertThat(retry.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody().getId()).isEqualTo(1L);
+        instance.close();
+    }
+
+    //Junit test for a request that runs longer than the in-progress timeout
+    @Test
+    @DisplayName("Junit test for a slow request, its claim is renewed and not taken over")
+    public void givenSlowWrite_whenInProgressTimeoutPasses_thenKeyStaysClaimed() throws Exception {
+        //given - precondition or setup
+        Duration inProgressTimeout = Duration.ofMillis(300);
+        IdempotentRequests instance = new IdempotentRequests(store, new ObjectMapper(), Duration.ofHours(1),
+                inProgressTimeout, TIMEOUT, Clock.systemUTC());
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<Employee>> write = () -> {
+            writing.countDown();
+            await(release);
+            return new ResponseEntity<>(Employee.builder().id(1L).build(), HttpStatus.CREATED);
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // when -action or the behavior we are going to test
+        Future<ResponseEntity<Employee>> first = executor.submit(() ->
+                instance.execute(CLIENT, "key-1", Employee.class, write, "POST"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(3 * inProgressTimeout.toMillis());
+        boolean takenOver = store.claim(IdempotentRequests.storedKey(CLIENT, "key-1"), "other",
+                Instant.now().plus(TIMEOUT));
+        release.countDown();
+        executor.shutdown();
+
+        //then - verify the output
+        assertThat(takenOver).isFalse();
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(store.find(IdempotentRequests.storedKey(CLIENT, "key-1")).orElseThrow().isCompleted()).isTrue();
+        instance.close();
+    }
+
+    //Junit test for the database idempotency store
+    @Test
+    @DisplayName("Junit test for the database idempotency store, claims, release and expiry")
+    public void givenClaimedKey_whenClaimedAgain_thenOnlyAfterReleaseOrExpiry() {
+        //given - precondition or setup
+        Instant later = Instant.now().plus(TIMEOUT);
+
+        // when -action or the behavior we are going to test
+        boolean claimed = store.claim("key-1", "f1", later);
+        boolean claimedTwice = store.claim("key-1", "f1", later);
+        store.release("key-1");
+        boolean claimedAfterRelease = store.claim("key-1", "f1", later);
+        store.complete("key-1", IdempotentResponse.builder().fingerprint("f1").status(201).body("{}").build(), later);
+        store.release("key-1");
+        IdempotentResponse completed = store.find("key-1").orElseThrow();
+        store.claim("key-2", "f2", Instant.now().minusSeconds(1));
+        boolean claimedAfterExpiry = store.claim("key-2", "f2", later);
+
+        //then - verify the output
+        assertThat(claimed).isTrue();
+        assertThat(claimedTwice).isFalse();
+        assertThat(claimedAfterRelease).isTrue();
+        assertThat(completed.isCompleted()).isTrue();
+        assertThat(completed.getStatus()).isEqualTo(201);
+        assertThat(claimedAfterExpiry).isTrue();
+    }
+
+    private IdempotentRequests requests() {
+        return new IdempotentRequests(store, new ObjectMapper(), Duration.ofHours(1), TIMEOUT, TIMEOUT, Clock.systemUTC());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
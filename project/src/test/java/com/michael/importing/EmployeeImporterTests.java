@@ -0,0 +1,86 @@
+package com.michael.importing;
+
+import com.michael.dto.BatchItemResult;
+import com.michael.dto.ImportReport;
+import com.michael.model.Employee;
+import com.michael.service.impl.EmployeeBatchWriter;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeImporterTests {
+    @Mock
+    private EmployeeBatchWriter batchWriter;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private EntityManager entityManager;
+    @InjectMocks
+    private EmployeeImporter employeeImporter;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(employeeImporter, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(employeeImporter, "chunkSize", 10);
+        ReflectionTestUtils.setField(employeeImporter, "parallelism", 1);
+        ReflectionTestUtils.setField(employeeImporter, "maxReportedErrors", 10);
+        employeeImporter.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeImporter.stop();
+    }
+
+    //Junit test for import whose chunk meets a concurrent create
+    @Test
+    @DisplayName("Junit test for import, an email taken meanwhile fails only its own line")
+    public void givenEmailTakenConcurrently_whenImportEmployees_thenWriteChunkAgain() throws Exception {
+        //given - precondition or setup
+        String csv = "id,firstName,lastName,email\r\n"
+                + ",Michael,Royf,michael@gmail.com\r\n"
+                + ",Tony,Stark,tony@gmail.com\r\n";
+        given(batchWriter.write(anyList()))
+                .willThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+                        "Duplicate entry", new SQLException(), "employees." + Employee.EMAIL_CONSTRAINT)))
+                .willReturn(List.of(
+                        BatchItemResult.builder().index(0).status(BatchItemResult.Status.CREATED).id(1L).build(),
+                        BatchItemResult.builder().index(1).status(BatchItemResult.Status.DUPLICATE)
+                                .message("Employee already exists with given email: tony@gmail.com").build()));
+
+        // when -action or the behavior we are going to test
+        ImportReport report = employeeImporter.importEmployees(
+                ImportFormat.CSV.open(new StringReader(csv), null, 1000));
+
+        //then - verify the output
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).hasSize(1);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(3);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Employee already exists");
+        verify(batchWriter, times(2)).write(anyList());
+    }
+}
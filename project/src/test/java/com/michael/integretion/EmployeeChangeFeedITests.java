@@ -0,0 +1,131 @@
+package com.michael.integretion;
+
+import com.michael.changes.EmployeeChangeFeed;
+import com.michael.controller.EmployeeChangesController;
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import com.michael.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// a ring of three changes, so a client is quickly out of reach of a resume
+@SpringBootTest(properties = "employee.changes.buffer-size=3")
+@AutoConfigureMockMvc
+public class EmployeeChangeFeedITests {
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)\\nevent:(\\w+)");
+    private static final long WAIT_MILLIS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll();
+    }
+
+    //Junit test for the change feed Rest Api
+    @Test
+    @DisplayName("Junit test for the change feed Rest Api, created, updated and deleted events")
+    public void givenSubscriber_whenEmployeesChange_thenStreamChangesInCommitOrder() throws Exception {
+        //given - precondition or setup
+        MvcResult stream = subscribe(get("/api/employees/changes"));
+
+        // when -action or the behavior we are going to test
+        Employee employee = employeeService.saveEmployee(employee("michael@gmail.com"));
+        employee.setLastName("Stark");
+        employeeService.updateEmployee(employee);
+        employeeService.patchEmployee(employee.getId(), Employee.builder().firstName("Tony").build(), 1L);
+        employeeService.deleteEmployee(employee.getId());
+
+        //then - verify the output
+        String events = awaitEvents(stream, 4);
+        assertThat(eventNames(events)).containsExactly("created", "updated", "updated", "deleted");
+        assertThat(events).contains("\"email\":\"michael@gmail.com\"", "\"lastName\":\"Stark\"",
+                "\"changes\":{\"firstName\":\"Tony\"},\"version\":2", "\"partial\":true",
+                "\"id\":" + employee.getId());
+    }
+
+    //Junit test for the change feed Rest Api with Last-Event-ID
+    @Test
+    @DisplayName("Junit test for the change feed Rest Api, resume from Last-Event-ID or resync")
+    public void givenLastEventId_whenReconnect_thenResumeOrResync() throws Exception {
+        //given - precondition or setup
+        MvcResult stream = subscribe(get("/api/employees/changes"));
+        employeeService.saveEmployee(employee("first@gmail.com"));
+        String firstId = eventIds(awaitEvents(stream, 1)).get(0);
+        employeeService.saveEmployee(employee("second@gmail.com"));
+
+        // when -action or the behavior we are going to test
+        MvcResult resumed = subscribe(resume(firstId));
+        String resumedEvents = awaitEvents(resumed, 1);
+        employeeService.saveEmployee(employee("third@gmail.com"));
+        employeeService.saveEmployee(employee("fourth@gmail.com"));
+        employeeService.saveEmployee(employee("fifth@gmail.com"));
+        MvcResult tooLate = subscribe(resume(firstId));
+        MvcResult earlierRun = subscribe(resume("previous-1"));
+
+        //then - verify the output
+        assertThat(resumedEvents).contains("second@gmail.com").doesNotContain("first@gmail.com");
+        assertThat(awaitEvents(tooLate, 1)).contains("event:" + EmployeeChangeFeed.RESYNC_EVENT);
+        assertThat(awaitEvents(earlierRun, 1)).contains("event:" + EmployeeChangeFeed.RESYNC_EVENT);
+    }
+
+    private MvcResult subscribe(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static MockHttpServletRequestBuilder resume(String lastEventId) {
+        return get("/api/employees/changes").header(EmployeeChangesController.LAST_EVENT_ID_HEADER, lastEventId);
+    }
+
+    // the stream so far, once it holds at least count events
+    private static String awaitEvents(MvcResult stream, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        String content = stream.getResponse().getContentAsString();
+        while (countEvents(content) < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    private static int countEvents(String content) {
+        return content.split("\nevent:", -1).length - 1;
+    }
+
+    private static List<String> eventNames(String content) {
+        return EVENT_ID.matcher(content).results().map(match -> match.group(2)).collect(Collectors.toList());
+    }
+
+    private static List<String> eventIds(String content) {
+        return EVENT_ID.matcher(content).results().map(match -> match.group(1)).collect(Collectors.toList());
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder().firstName("Michael").lastName("Royf").email(email).build();
+    }
+}
@@ -1,21 +1,31 @@
 package com.michael.integretion;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.exception.ResourceNotFoundException;
+import com.michael.metrics.EmployeeMetricsAspect;
 import com.michael.model.Employee;
 import com.michael.repository.EmployeeRepository;
+import com.michael.service.EmployeeService;
+import com.michael.sql.SqlStatementAssertions;
+import net.ttddyy.dsproxy.QueryType;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -34,9 +44,20 @@ public class EmployeeControllerITests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setup() {
         employeeRepository.deleteAll();
+        // rows were removed behind the service's back, so drop what it cached
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     //Junit test for create Employee Rest Api
@@ -90,6 +111,37 @@ public class EmployeeControllerITests {
                 .andExpect(jsonPath("$.size()", is(listOfEmployees.size())));
     }
 
+    //Junit test for the employee list JSON writer
+    @Test
+    @DisplayName("Junit test for get all Employees Rest Api, small lists sent with a length, large ones streamed")
+    public void givenEmployees_whenGetAllEmployees_thenSameJsonAsBeanSerialization() throws Exception {
+        //given - precondition or setup
+        List<Employee> listOfEmployees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            listOfEmployees.add(Employee.builder()
+                    .firstName("Michael" + i)
+                    .lastName("Ro\"yf")
+                    .email("michael" + i + "@gmail.com")
+                    .build());
+        }
+        employeeRepository.saveAll(listOfEmployees);
+        // the reflective serialization the custom writer replaces
+        ObjectMapper beanMapper = new ObjectMapper();
+
+        // when -action or the behavior we are going to test
+        MvcResult small = mockMvc.perform(get("/api/employees").param("limit", "2")).andReturn();
+        MvcResult large = mockMvc.perform(get("/api/employees").param("limit", "100")).andReturn();
+
+        //then - verify the output
+        assertThat(small.getResponse().getContentAsString())
+                .isEqualTo(beanMapper.writeValueAsString(listOfEmployees.subList(0, 2)));
+        assertThat(small.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH))
+                .isEqualTo(String.valueOf(small.getResponse().getContentAsByteArray().length));
+        assertThat(large.getResponse().getContentAsString())
+                .isEqualTo(beanMapper.writeValueAsString(listOfEmployees));
+        assertThat(large.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+    }
+
     //Junit test for get employee by id REST API
     @Test
     @DisplayName("Junit test for get employee by id REST API, positive")
@@ -224,6 +276,70 @@ public class EmployeeControllerITests {
                 .andExpect(status().isOk());
     }
 
+    //Junit test for layer metrics
+    @Test
+    @DisplayName("Junit test for layer metrics, timers per layer and errors per exception")
+    public void givenRequests_whenMeasured_thenRecordEveryLayerAndErrors() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
+        employeeService.saveEmployee(employee);
+
+        // when -action or the behavior we are going to test
+        mockMvc.perform(get("/api/employees/{id}", employee.getId())).andExpect(status().isOk());
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            employeeService.saveEmployee(Employee.builder()
+                    .firstName("Anna")
+                    .lastName("Royf")
+                    .email("michael@gmail.com")
+                    .build());
+        });
+
+        //then - verify the output
+        assertThat(meterRegistry.get(EmployeeMetricsAspect.DURATION)
+                .tags("layer", "controller", "class", "EmployeeController", "method", "getEmployeeByID")
+                .timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get(EmployeeMetricsAspect.DURATION)
+                .tags("layer", "repository", "method", "save")
+                .timer().count()).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get(EmployeeMetricsAspect.ERRORS)
+                .tags("layer", "service", "method", "saveEmployee", "exception", "ResourceNotFoundException")
+                .counter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get(EmployeeMetricsAspect.ACTIVE)
+                .tags("layer", "service", "method", "getEmployeeById")
+                .longTaskTimer().activeTasks()).isZero();
+    }
+
+    //Junit test for SQL statement accounting
+    @Test
+    @DisplayName("Junit test for SQL statement accounting, no N+1 and no read-before-write")
+    public void givenEmployee_whenReadAndWrite_thenIssueMinimalStatements() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
 
+        // when -action or the behavior we are going to test
+        SqlStatementAssertions.assertNoStatements(QueryType.SELECT, () -> employeeService.saveEmployee(employee));
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        ResultActions firstRead = mockMvc.perform(get("/api/employees/{id}", employee.getId()));
+        ResultActions cachedRead = mockMvc.perform(get("/api/employees/{id}", employee.getId()));
+        ResultActions page = mockMvc.perform(get("/api/employees"));
+        ResultActions patch = mockMvc.perform(patch("/api/employees/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastName\":\"Stark\"}"));
 
+        //then - verify the output
+        firstRead.andExpect(status().isOk()).andExpect(SqlStatementAssertions.statements(1));
+        cachedRead.andExpect(status().isOk()).andExpect(SqlStatementAssertions.statements(0));
+        page.andExpect(status().isOk()).andExpect(SqlStatementAssertions.atMostStatements(1));
+        patch.andExpect(status().isOk()).andExpect(SqlStatementAssertions.statements(1));
+        // the proxy still unwraps to the pool, so its gauges are bound
+        assertThat(meterRegistry.find("hikaricp.connections.max").gauge()).isNotNull();
+    }
 }
@@ -0,0 +1,122 @@
+package com.michael.integretion;
+
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// tiny chunks, so a few lines already span several transactions and parser threads
+@SpringBootTest(properties = {
+        "employee.import.chunk-size=2",
+        "employee.import.parallelism=2"})
+@AutoConfigureMockMvc
+public class EmployeeImportITests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    //Junit test for CSV import Rest Api
+    @Test
+    @DisplayName("Junit test for CSV import Rest Api, with an error per rejected line")
+    public void givenCsvUpload_whenImportEmployees_thenCreateValidRowsAndReportTheRest() throws Exception {
+        //given - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+        String csv = "id,firstName,lastName,email\r\n"
+                + ",Michael,Royf,michael@gmail.com\r\n"
+                + ",Anna,\"Royf, \"\"the\"\"\nsecond\",anna@gmail.com\r\n"
+                + ",Tony,Stark,tony@gmail.com\r\n"
+                + "\r\n"
+                + ",Bad,Email,not-an-email\r\n"
+                + ",Too,Few\r\n"
+                + ",Mike,Royf,michael@gmail.com\r\n";
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/import")
+                .contentType("text/csv")
+                .content(csv));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records", is(6)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.failed", is(4)))
+                .andExpect(jsonPath("$.errors", hasSize(4)))
+                .andExpect(jsonPath("$.errors[0].line", is(5)))
+                .andExpect(jsonPath("$.errors[0].message", startsWith("Employee already exists")))
+                .andExpect(jsonPath("$.errors[1].line", is(7)))
+                .andExpect(jsonPath("$.errors[1].message", startsWith("email ")))
+                .andExpect(jsonPath("$.errors[2].line", is(8)))
+                .andExpect(jsonPath("$.errors[3].line", is(9)))
+                .andExpect(jsonPath("$.errors[3].message", startsWith("Employee already exists")));
+        assertThat(employeeRepository.findAll())
+                .extracting(Employee::getLastName)
+                .containsExactlyInAnyOrder("Stark", "Royf", "Royf, \"the\"\nsecond");
+    }
+
+    //Junit test for NDJSON import Rest Api
+    @Test
+    @DisplayName("Junit test for NDJSON import Rest Api")
+    public void givenNdjsonUpload_whenImportEmployees_thenCreateValidLines() throws Exception {
+        //given - precondition or setup
+        String ndjson = "{\"firstName\":\"Michael\",\"lastName\":\"Royf\",\"email\":\"michael@gmail.com\"}\n"
+                + "{\"firstName\":\"Anna\",\"lastName\":\"Royf\"\n"
+                + "{\"firstName\":\" \",\"lastName\":\"Royf\",\"email\":\"blank@gmail.com\"}\n";
+
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson));
+
+        //then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].message", startsWith("Not a JSON employee")))
+                .andExpect(jsonPath("$.errors[1].line", is(3)))
+                .andExpect(jsonPath("$.errors[1].message", startsWith("firstName ")));
+        assertThat(employeeRepository.findAll()).hasSize(1);
+    }
+
+    //Junit test for CSV import Rest Api without a usable header
+    @Test
+    @DisplayName("Junit test for CSV import Rest Api, header without an email column")
+    public void givenCsvWithoutEmailColumn_whenImportEmployees_thenReturn400() throws Exception {
+        // when -action or the behavior we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/import")
+                .contentType("text/csv")
+                .content("firstName,lastName\nMichael,Royf\n"));
+
+        //then - verify the output
+        response.andExpect(status().isBadRequest());
+        assertThat(employeeRepository.findAll()).isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.michael.integretion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import com.michael.routing.ReadYourWritesFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.servlet.http.Cookie;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// two in-memory H2 databases stand in for primary and replica. Nothing replicates between them,
+// so every row shows which of the two served a read
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "employee.datasource.replicas[0].url=" + ReplicaRoutingITests.REPLICA_URL,
+        "employee.datasource.read-your-writes-window=1m"})
+@AutoConfigureMockMvc
+public class ReplicaRoutingITests {
+    // the replica has no Hibernate schema management, so it creates the Employee table itself
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:reactive-schema.sql'";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll();
+        replica.update("delete from employees");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    //Junit test for reads without a recent write
+    @Test
+    @DisplayName("Junit test for replica routing, list reads go to the replica, cached single reads to the primary")
+    public void givenNoRecentWrite_whenReadEmployees_thenListServedByReplica() throws Exception {
+        //given - precondition or setup
+        Employee primaryEmployee = employeeRepository.save(
+                Employee.builder().firstName("Michael").lastName("Royf").email("primary@gmail.com").build());
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (1000, 'Anna', 'Royf', 'replica@gmail.com', 0)");
+
+        // when -action or the behavior we are going to test
+        ResultActions list = mockMvc.perform(get("/api/employees"));
+        ResultActions single = mockMvc.perform(get("/api/employees/{id}", primaryEmployee.getId()));
+        ResultActions replicaOnly = mockMvc.perform(get("/api/employees/{id}", 1000));
+
+        //then - verify the output
+        list.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("replica@gmail.com")));
+        single.andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is("primary@gmail.com")));
+        replicaOnly.andExpect(status().isNotFound());
+    }
+
+    //Junit test for reads after a write
+    @Test
+    @DisplayName("Junit test for replica routing, read-your-writes window pins the client to the primary")
+    public void givenRecentWrite_whenReadWithCookie_thenServedByPrimary() throws Exception {
+        //given - precondition or setup
+        Employee employee = Employee.builder().firstName("Michael").lastName("Royf").email("michael@gmail.com").build();
+        Cookie primaryUntil = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        // when -action or the behavior we are going to test
+        ResultActions writer = mockMvc.perform(get("/api/employees").cookie(primaryUntil));
+        ResultActions otherClient = mockMvc.perform(get("/api/employees"));
+
+        //then - verify the output
+        writer.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("michael@gmail.com")));
+        otherClient.andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
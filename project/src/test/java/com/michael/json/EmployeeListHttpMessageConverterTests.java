@@ -0,0 +1,46 @@
+package com.michael.json;
+
+import com.michael.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeListHttpMessageConverterTests {
+    private final EmployeeListHttpMessageConverter converter = new EmployeeListHttpMessageConverter();
+
+    //Junit test for canRead and canWrite methods
+    @Test
+    @DisplayName("Junit test for canRead and canWrite methods, only writes lists of employees")
+    public void givenListTypes_whenCanReadOrWrite_thenOnlyWriteEmployeeLists() {
+        //given - precondition or setup
+        Type employees = new ParameterizedTypeReference<List<Employee>>() {
+        }.getType();
+        Type employeeArrayList = new ParameterizedTypeReference<ArrayList<Employee>>() {
+        }.getType();
+        Type strings = new ParameterizedTypeReference<List<String>>() {
+        }.getType();
+
+        // when -action or the behavior we are going to test
+        boolean writesEmployees = converter.canWrite(employees, List.class, MediaType.APPLICATION_JSON);
+        boolean writesEmployeeArrayList = converter.canWrite(employeeArrayList, ArrayList.class, MediaType.APPLICATION_JSON);
+        boolean writesStrings = converter.canWrite(strings, List.class, MediaType.APPLICATION_JSON);
+        boolean writesRawList = converter.canWrite(List.class, MediaType.APPLICATION_JSON);
+        boolean readsEmployees = converter.canRead(employees, null, MediaType.APPLICATION_JSON);
+        boolean readsRawList = converter.canRead(List.class, MediaType.APPLICATION_JSON);
+
+        //then - verify the output
+        assertThat(writesEmployees).isTrue();
+        assertThat(writesEmployeeArrayList).isTrue();
+        assertThat(writesStrings).isFalse();
+        assertThat(writesRawList).isFalse();
+        assertThat(readsEmployees).isFalse();
+        assertThat(readsRawList).isFalse();
+    }
+}
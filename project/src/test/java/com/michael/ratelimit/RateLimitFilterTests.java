@@ -0,0 +1,91 @@
+package com.michael.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTests {
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ClientRateLimiter writes;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        // reads: 10 per second, 2 at once; writes: 1 per second, 2 at once
+        ClientRateLimiter reads = new ClientRateLimiter(10, 2, 100, Duration.ofMinutes(1), nanoTime::get);
+        writes = new ClientRateLimiter(1, 2, 100, Duration.ofSeconds(5), nanoTime::get);
+        filter = new RateLimitFilter(reads, writes, new ClientKeyResolver("X-Api-Key"), meterRegistry);
+    }
+
+    //Junit test for the rate limit filter
+    @Test
+    @DisplayName("Junit test for the rate limit filter, burst then 429 with Retry-After, budgets per client or client header")
+    public void givenBurstSpent_whenWrite_thenReturn429UntilRefilled() throws Exception {
+        // when -action or the behavior we are going to test
+        int first = perform("POST", "10.0.0.1").getStatus();
+        int second = perform("POST", "10.0.0.1").getStatus();
+        MockHttpServletResponse rejected = perform("POST", "10.0.0.1");
+        int read = perform("GET", "10.0.0.1").getStatus();
+        int otherClient = perform("POST", "10.0.0.2").getStatus();
+        int sameAddressOtherKey = perform("POST", "10.0.0.1", "key-1").getStatus();
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        int refilled = perform("PUT", "10.0.0.1").getStatus();
+
+        //then - verify the output
+        assertThat(first).isEqualTo(200);
+        assertThat(second).isEqualTo(200);
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(read).isEqualTo(200);
+        assertThat(otherClient).isEqualTo(200);
+        assertThat(sameAddressOtherKey).isEqualTo(200);
+        assertThat(refilled).isEqualTo(200);
+        assertThat(meterRegistry.counter(RateLimitFilter.REJECTED, "budget", "write").count()).isEqualTo(1);
+    }
+
+    //Junit test for the rate limiter memory bound
+    @Test
+    @DisplayName("Junit test for the rate limiter, idle clients evicted")
+    public void givenIdleClients_whenIdleTimeoutPassed_thenForgotten() throws Exception {
+        //given - precondition or setup
+        for (int i = 0; i < 10; i++) {
+            perform("POST", "10.0.1." + i);
+        }
+
+        // when -action or the behavior we are going to test
+        long tracked = writes.trackedClients();
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        long trackedAfterIdle = writes.trackedClients();
+
+        //then - verify the output
+        assertThat(tracked).isEqualTo(10);
+        assertThat(trackedAfterIdle).isZero();
+    }
+
+    private MockHttpServletResponse perform(String method, String remoteAddress) throws Exception {
+        return perform(method, remoteAddress, null);
+    }
+
+    private MockHttpServletResponse perform(String method, String remoteAddress, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/employees");
+        request.setRemoteAddr(remoteAddress);
+        if (apiKey != null) {
+            request.addHeader("X-Api-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
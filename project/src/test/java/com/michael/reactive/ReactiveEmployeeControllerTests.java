@@ -0,0 +1,168 @@
+package com.michael.reactive;
+
+import com.michael.controller.EmployeeController;
+import com.michael.reactive.model.ReactiveEmployee;
+import com.michael.reactive.repository.EmployeeIdAllocator;
+import com.michael.reactive.repository.ReactiveEmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the profile hides ReactiveProjectApplication from the usual @SpringBootConfiguration lookup, so it is named here
+@SpringBootTest(classes = ReactiveProjectApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:reactive-schema.sql"})
+@ActiveProfiles(ReactiveProjectApplication.PROFILE)
+public class ReactiveEmployeeControllerTests {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeIdAllocator idAllocator;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll().block();
+    }
+
+    private ReactiveEmployee create(String firstName, String lastName, String email) {
+        return webTestClient.post().uri("/api/employees")
+                .bodyValue(ReactiveEmployee.builder().firstName(firstName).lastName(lastName).email(email).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ReactiveEmployee.class)
+                .returnResult().getResponseBody();
+    }
+
+
+    //Junit test for reactive create and get employee Rest Api
+    @Test
+    @DisplayName("Junit test for reactive create and get employee Rest Api")
+    public void givenEmployeeObject_whenCreateAndGetEmployee_thenReturnSavedEmployee() {
+        //given - precondition or setup
+        ReactiveEmployee savedEmployee = create("Michael", "Royf", "michael@gmail.com");
+
+        // when -action or the behavior we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get()
+                .uri("/api/employees/{id}", savedEmployee.getId())
+                .exchange();
+
+        //then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("michael@gmail.com")
+                .jsonPath("$.firstName").isEqualTo("Michael");
+        webTestClient.get().uri("/api/employees/{id}", savedEmployee.getId() + 1000)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    //Junit test for reactive keyset listing
+    @Test
+    @DisplayName("Junit test for reactive get all employees Rest Api, next page cursor")
+    public void givenMoreEmployeesThanLimit_whenGetAllEmployees_thenReturnNextCursor() {
+        //given - precondition or setup
+        create("Michael", "Royf", "michael@gmail.com");
+        create("Anna", "Royf", "anna@gmail.com");
+        create("Tom", "Vanyan", "tom@gmail.com");
+
+        // when -action or the behavior we are going to test
+        String cursor = webTestClient.get().uri("/api/employees?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(2)
+                .returnResult().getResponseHeaders().getFirst(EmployeeController.NEXT_CURSOR_HEADER);
+
+        //then - verify the output
+        assertThat(cursor).isNotNull();
+        webTestClient.get().uri("/api/employees?limit=2&after={cursor}", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(EmployeeController.NEXT_CURSOR_HEADER)
+                .expectBody().jsonPath("$[0].email").isEqualTo("tom@gmail.com");
+    }
+
+    //Junit test for reactive export and search
+    @Test
+    @DisplayName("Junit test for reactive export and search Rest Api")
+    public void givenEmployees_whenExportAndSearch_thenReturnMatchingRows() {
+        //given - precondition or setup
+        create("Michael", "Royf", "michael@gmail.com");
+        create("Anna", "Royf", "anna@gmail.com");
+        create("Tom", "Vanyan", "tom@gmail.com");
+
+        // when -action or the behavior we are going to test
+        List<ReactiveEmployee> exported = webTestClient.get().uri("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ReactiveEmployee.class)
+                .getResponseBody().collectList().block();
+
+        //then - verify the output
+        assertThat(exported).extracting(ReactiveEmployee::getEmail)
+                .containsExactly("michael@gmail.com", "anna@gmail.com", "tom@gmail.com");
+        webTestClient.get().uri("/api/employees/search?lastName=Ro")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].firstName").isEqualTo("Anna");
+    }
+
+    //Junit test for reactive update and delete employee Rest Api
+    @Test
+    @DisplayName("Junit test for reactive update and delete employee Rest Api")
+    public void givenSavedEmployee_whenUpdateThenDelete_thenReturn200Then404() {
+        //given - precondition or setup
+        ReactiveEmployee savedEmployee = create("Michael", "Royf", "michael@gmail.com");
+
+        // when -action or the behavior we are going to test
+        webTestClient.put().uri("/api/employees/{id}", savedEmployee.getId())
+                .bodyValue(ReactiveEmployee.builder().firstName("Mich").lastName("Royf").email("mich@gmail.com").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.email").isEqualTo("mich@gmail.com");
+
+        //then - verify the output
+        webTestClient.delete().uri("/api/employees/{id}", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/employees/{id}", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    //Junit test for the reactive id allocator
+    @Test
+    @DisplayName("Junit test for the reactive id allocator under concurrency")
+    public void givenConcurrentCallers_whenNextId_thenIdsAreUnique() {
+        // when -action or the behavior we are going to test
+        List<Long> ids = Flux.range(0, 3 * EmployeeIdAllocator.BLOCK_SIZE)
+                .flatMap(i -> idAllocator.nextId(), 16)
+                .collectList()
+                .block();
+
+        //then - verify the output
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        assertThat(ids).allMatch(id -> id > 0);
+    }
+}
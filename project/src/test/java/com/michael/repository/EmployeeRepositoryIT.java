@@ -1,6 +1,7 @@
 package com.michael.repository;
 
 import com.michael.integretion.AbstractionContainerBaseTest;
+import com.michael.dto.EmployeeField;
 import com.michael.model.Employee;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,9 +9,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -20,6 +28,9 @@ public class EmployeeRepositoryIT  extends AbstractionContainerBaseTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     private Employee employee1;
 
     @BeforeEach
@@ -70,6 +81,32 @@ public class EmployeeRepositoryIT  extends AbstractionContainerBaseTest {
     }
 
 
+    //Junit test for keyset page operation
+    @Test
+    @DisplayName("Junit test for keyset page operation")
+    public void givenEmployees_whenFindByIdGreaterThan_thenReturnNextSlice() {
+        //given - precondition or setup
+        Employee employee2 = Employee.builder()
+                .firstName("Anna")
+                .lastName("Vanyan")
+                .email("anna@gmail.com")
+                .build();
+        employeeRepository.save(employee1);
+        employeeRepository.save(employee2);
+
+        // when -action or the behavior we are going to test
+        Slice<Employee> firstPage = employeeRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 1));
+        Slice<Employee> secondPage = employeeRepository.findByIdGreaterThanOrderByIdAsc(
+                firstPage.getContent().get(0).getId(), PageRequest.of(0, 1));
+
+        //then - verify the output
+        assertThat(firstPage.getContent()).extracting(Employee::getEmail).containsExactly(employee1.getEmail());
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getContent()).extracting(Employee::getEmail).containsExactly(employee2.getEmail());
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+
     //Junit test for get employee by id operation
     @Test
     @DisplayName("Junit test for get employee by id operation")
@@ -96,6 +133,21 @@ public class EmployeeRepositoryIT  extends AbstractionContainerBaseTest {
         assertThat(employeeDB).isNotNull();
     }
 
+    //Junit test for existing emails operation
+    @Test
+    @DisplayName("Junit test for existing emails operation")
+    public void givenSavedEmployee_whenFindExistingEmails_thenReturnOnlyTakenEmails() {
+        //given - precondition or setup
+        employeeRepository.save(employee1);
+
+        // when -action or the behavior we are going to test
+        List<String> existingEmails = employeeRepository.findExistingEmails(
+                List.of(employee1.getEmail(), "anna@gmail.com"));
+
+        //then - verify the output
+        assertThat(existingEmails).containsExactly(employee1.getEmail());
+    }
+
     //Junit test for update employee operation
     @Test
     @DisplayName("Junit test for update employee operation")
@@ -114,6 +166,54 @@ public class EmployeeRepositoryIT  extends AbstractionContainerBaseTest {
     }
 
 
+    //Junit test for partial update operation
+    @Test
+    @DisplayName("Junit test for partial update operation")
+    public void givenSavedEmployee_whenPatchById_thenOnlySuppliedFieldsChange() {
+        //given - precondition or setup
+        employeeRepository.save(employee1);
+
+        // when -action or the behavior we are going to test
+        int updatedRows = employeeRepository.patchById(employee1.getId(),
+                Employee.builder().firstName("Mich").build(), null);
+        int missingRows = employeeRepository.patchById(employee1.getId() + 1000,
+                Employee.builder().firstName("Mich").build(), null);
+        // the bulk update bypasses the persistence context, so re-read from the database
+        testEntityManager.clear();
+        Employee patchedEmployee = employeeRepository.findById(employee1.getId()).get();
+
+        //then - verify the output
+        assertThat(updatedRows).isEqualTo(1);
+        assertThat(missingRows).isZero();
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Mich");
+        assertThat(patchedEmployee.getLastName()).isEqualTo("Royf");
+        assertThat(patchedEmployee.getEmail()).isEqualTo("michael@gmail.com");
+        assertThat(patchedEmployee.getVersion()).isEqualTo(1L);
+    }
+
+
+    //Junit test for versioned partial update operation
+    @Test
+    @DisplayName("Junit test for versioned partial update operation")
+    public void givenStaleVersion_whenPatchById_thenNothingChanges() {
+        //given - precondition or setup
+        employeeRepository.save(employee1);
+
+        // when -action or the behavior we are going to test
+        int currentRows = employeeRepository.patchById(employee1.getId(),
+                Employee.builder().firstName("Mich").build(), 0L);
+        int staleRows = employeeRepository.patchById(employee1.getId(),
+                Employee.builder().firstName("Mike").build(), 0L);
+        testEntityManager.clear();
+
+        //then - verify the output
+        assertThat(currentRows).isEqualTo(1);
+        assertThat(staleRows).isZero();
+        assertThat(employeeRepository.findVersionById(employee1.getId())).contains(1L);
+        assertThat(employeeRepository.findById(employee1.getId()).get().getFirstName()).isEqualTo("Mich");
+    }
+
+
     //Junit test for delete employee operation
     @Test
     @DisplayName("Junit test for delete employee operation")
@@ -127,62 +227,117 @@ public class EmployeeRepositoryIT  extends AbstractionContainerBaseTest {
         assertThat(employeeOptional).isEmpty();
     }
 
-    //Junit test for custom Query using JPQL with index
+    //Junit test for direct delete operation
     @Test
-    @DisplayName("Junit test for custom Query using JPQL with index")
-    public void givenFirstNameAndLastName_whenFindBYJPQL_thenReturnEmployeeObject() {
+    @DisplayName("Junit test for direct delete operation")
+    public void givenSavedEmployee_whenDeleteEmployeeById_thenReturnAffectedRows() {
         //given - precondition or setup
-
         employeeRepository.save(employee1);
-        String firstName = "Michael";
-        String lastname = "Royf";
+
         // when -action or the behavior we are going to test
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName, lastname);
+        int deletedRows = employeeRepository.deleteEmployeeById(employee1.getId());
+        int missingRows = employeeRepository.deleteEmployeeById(employee1.getId());
 
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(deletedRows).isEqualTo(1);
+        assertThat(missingRows).isZero();
     }
 
-
-    //Junit test for custom Query using JPQL with named params
+    //Junit test for bulk delete operation
     @Test
-    @DisplayName("Junit test for custom Query using JPQL with  named params")
-    public void givenFirstNameAndLastName_whenFindBYJPQLNamedParams_thenReturnEmployeeObject() {
+    @DisplayName("Junit test for bulk delete operation")
+    public void givenSavedEmployees_whenDeleteEmployeesByIds_thenReturnAffectedRows() {
         //given - precondition or setup
-
+        Employee employee2 = Employee.builder()
+                .firstName("Anna")
+                .lastName("Vanyan")
+                .email("anna@gmail.com")
+                .build();
         employeeRepository.save(employee1);
+        employeeRepository.save(employee2);
+
         // when -action or the behavior we are going to test
-        Employee savedEmployee = employeeRepository.findByJPQLNamedParams(employee1.getFirstName(), employee1.getLastName());
+        int deletedRows = employeeRepository.deleteEmployeesByIds(
+                List.of(employee1.getId(), employee2.getId(), employee2.getId() + 1000));
+
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(deletedRows).isEqualTo(2);
     }
 
-
-    //Junit test for custom query using SQL with index
+    //Junit test for name search operation
     @Test
-    @DisplayName("Junit test for custom query using SQL with index")
-    public void givenFirstNameAndLastName_whenFindByNativeSQL_thenReturnEmployeeObject() {
+    @DisplayName("Junit test for name search operation, prefix and colliding names")
+    public void givenEmployeesWithSameName_whenSearchByNamePrefix_thenReturnAllMatches() {
         //given - precondition or setup
-
+        Employee namesake = Employee.builder()
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael.royf@gmail.com")
+                .build();
+        Employee other = Employee.builder()
+                .firstName("Anna")
+                .lastName("Vanyan")
+                .email("anna@gmail.com")
+                .build();
         employeeRepository.save(employee1);
+        employeeRepository.save(namesake);
+        employeeRepository.save(other);
+
         // when -action or the behavior we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee1.getFirstName(), employee1.getLastName());
+        Slice<Employee> exact = employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(
+                "Royf", "Michael", PageRequest.of(0, 10));
+        Slice<Employee> prefix = employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(
+                "Ro", "", PageRequest.of(0, 1, Sort.by("lastName", "firstName", "id")));
+
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(exact.getContent()).hasSize(2);
+        assertThat(prefix.getContent()).hasSize(1);
+        assertThat(prefix.hasNext()).isTrue();
     }
 
-
-    //Junit test for custom query using SQL with  named params
+    //Junit test for name search operation with wildcard characters
     @Test
-    @DisplayName("Junit test for custom query using SQL with named params")
-    public void givenFirstNameAndLastName_whenFindByNativeSQLNamedParams_thenReturnEmployeeObject() {
+    @DisplayName("Junit test for name search operation, wildcards are literal")
+    public void givenWildcardInput_whenSearchByNamePrefix_thenMatchNothing() {
         //given - precondition or setup
+        employeeRepository.save(employee1);
+
+        // when -action or the behavior we are going to test
+        Slice<Employee> result = employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith(
+                "%", "", PageRequest.of(0, 10));
+
+        //then - verify the output
+        assertThat(result.getContent()).isEmpty();
+    }
 
+    //Junit test for sparse fieldset reads
+    @Test
+    @DisplayName("Junit test for sparse fieldset reads")
+    public void givenSavedEmployees_whenFindFields_thenReturnOnlyRequestedColumns() {
+        //given - precondition or setup
+        Employee employee2 = Employee.builder()
+                .firstName("Anna")
+                .lastName("Royf")
+                .email("anna@gmail.com")
+                .build();
         employeeRepository.save(employee1);
+        employeeRepository.save(employee2);
+        Set<EmployeeField> fields = EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL);
+
         // when -action or the behavior we are going to test
-        Employee savedEmployee = employeeRepository.findByJPQLNamedParams(employee1.getFirstName(), employee1.getLastName());
+        Slice<Map<String, Object>> firstPage = employeeRepository.findFieldsByIdGreaterThan(0L, fields, 1);
+        Optional<Map<String, Object>> single = employeeRepository.findFieldsById(employee2.getId(), fields);
+        Slice<Map<String, Object>> byName = employeeRepository.findFieldsByNamePrefix("Ro", "", fields,
+                PageRequest.of(0, 10));
+
         //then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(firstPage.getContent()).containsExactly(
+                Map.of("id", employee1.getId(), "email", "michael@gmail.com"));
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(single).contains(Map.of("id", employee2.getId(), "email", "anna@gmail.com"));
+        assertThat(byName.getContent()).extracting(row -> row.get("email"))
+                .containsExactly("anna@gmail.com", "michael@gmail.com");
+        assertThat(byName.hasNext()).isFalse();
     }
 
 }
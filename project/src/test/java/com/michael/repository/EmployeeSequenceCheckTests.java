@@ -0,0 +1,89 @@
+package com.michael.repository;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQL8Dialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSequenceCheckTests {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @InjectMocks
+    private EmployeeSequenceCheck sequenceCheck;
+
+    //Junit test for the sequence check on MySQL
+    @Test
+    @DisplayName("Junit test for the sequence check, the MySQL sequence table is raised past max(id)")
+    public void givenRowsAboveSequenceTable_whenCheck_thenRaiseNextVal() {
+        //given - precondition or setup
+        given(jdbcTemplate.queryForObject("select max(id) from employees", Long.class)).willReturn(120L);
+        givenDialect(new MySQL8Dialect());
+
+        // when -action or the behavior we are going to test
+        sequenceCheck.check();
+
+        //then - verify the output
+        verify(jdbcTemplate).update("update employees_seq set next_val = ? where next_val < ?", 170L, 170L);
+    }
+
+    //Junit test for the sequence check with a native sequence
+    @Test
+    @DisplayName("Junit test for the sequence check, a native sequence behind max(id) fails the startup")
+    public void givenRowsAboveNativeSequence_whenCheck_thenThrowException() {
+        //given - precondition or setup
+        given(jdbcTemplate.queryForObject("select max(id) from employees", Long.class)).willReturn(120L);
+        Dialect dialect = new H2Dialect();
+        givenDialect(dialect);
+        given(jdbcTemplate.queryForObject(dialect.getSequenceNextValString("employees_seq"), Long.class))
+                .willReturn(51L);
+
+        // when -action or the behavior we are going to test
+        IllegalStateException e = org.junit.jupiter.api.Assertions.assertThrows(IllegalStateException.class, () -> {
+            sequenceCheck.check();
+        });
+
+        //then - verify the output
+        assertThat(e).hasMessageContaining("restart it with 170");
+    }
+
+    //Junit test for the sequence check on an empty table
+    @Test
+    @DisplayName("Junit test for the sequence check, nothing to do without employees")
+    public void givenNoEmployees_whenCheck_thenLeaveSequenceAlone() {
+        //given - precondition or setup
+        given(jdbcTemplate.queryForObject("select max(id) from employees", Long.class)).willReturn(null);
+
+        // when -action or the behavior we are going to test
+        sequenceCheck.check();
+
+        //then - verify the output
+        verify(entityManagerFactory, never()).unwrap(SessionFactoryImplementor.class);
+    }
+
+    private void givenDialect(Dialect dialect) {
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        JdbcServices jdbcServices = mock(JdbcServices.class);
+        given(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).willReturn(sessionFactory);
+        given(sessionFactory.getJdbcServices()).willReturn(jdbcServices);
+        given(jdbcServices.getDialect()).willReturn(dialect);
+    }
+}
@@ -0,0 +1,137 @@
+package com.michael.search;
+
+import com.michael.event.EmployeeChangedEvent;
+import com.michael.model.Employee;
+import com.michael.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+public class EmployeeSearchIndexTests {
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        searchIndex = new EmployeeSearchIndex();
+        searchIndex.index(employee(1L, "Michael", "Royf", "michael@gmail.com"));
+        searchIndex.index(employee(2L, "Michelle", "Stone", "m.stone@gmail.com"));
+        searchIndex.index(employee(3L, "Anna", "Royf", "anna.royf@gmail.com"));
+    }
+
+    //Junit test for suggest method
+    @Test
+    @DisplayName("Junit test for suggest method, prefixes of names and emails")
+    public void givenIndexedEmployees_whenSuggest_thenMatchWordPrefixes() {
+        // when -action or the behavior we are going to test
+        List<Employee> mich = searchIndex.suggest("Mich", 10);
+        List<Employee> royf = searchIndex.suggest("royf", 10);
+        List<Employee> both = searchIndex.suggest("roy an", 10);
+        List<Employee> email = searchIndex.suggest("m.sto", 10);
+        List<Employee> limited = searchIndex.suggest("mich", 1);
+
+        //then - verify the output
+        assertThat(mich).extracting(Employee::getId).containsExactly(1L, 2L);
+        assertThat(royf).extracting(Employee::getId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(both).extracting(Employee::getId).containsExactly(3L);
+        assertThat(email).extracting(Employee::getId).containsExactly(2L);
+        assertThat(limited).hasSize(1);
+    }
+
+    //Junit test for suggest method with a typo
+    @Test
+    @DisplayName("Junit test for suggest method, typo falls back to trigrams")
+    public void givenMisspelledQuery_whenSuggest_thenReturnFuzzyMatches() {
+        // when -action or the behavior we are going to test
+        List<Employee> suggestions = searchIndex.suggest("micheal", 10);
+        List<Employee> unrelated = searchIndex.suggest("xyzzy", 10);
+
+        //then - verify the output
+        assertThat(suggestions).extracting(Employee::getId).contains(1L);
+        assertThat(unrelated).isEmpty();
+    }
+
+    //Junit test for suggest method ranking typo matches
+    @Test
+    @DisplayName("Junit test for suggest method, typo matches ranked by shared trigrams, then id")
+    public void givenManySimilarEmployees_whenSuggestWithTypo_thenReturnBestFuzzyMatchesFirst() {
+        //given - precondition or setup
+        for (long id = 100; id < 300; id++) {
+            searchIndex.index(employee(id, "Mick", "Jagger", "mick" + id + "@gmail.com"));
+        }
+        searchIndex.index(employee(50L, "Michael", "Jordan", "jordan@gmail.com"));
+
+        // when -action or the behavior we are going to test
+        List<Employee> suggestions = searchIndex.suggest("micheal", 10);
+        List<Employee> best = searchIndex.suggest("micheal", 1);
+
+        //then - verify the output
+        assertThat(suggestions).extracting(Employee::getId).containsExactly(2L, 1L, 50L);
+        assertThat(best).extracting(Employee::getId).containsExactly(2L);
+    }
+
+    //Junit test for change events
+    @Test
+    @DisplayName("Junit test for change events, patch and delete update the index")
+    public void givenChangeEvents_whenSuggest_thenReflectLatestState() {
+        //given - precondition or setup
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.patched(1L, Employee.builder().lastName("Stark").build(), null));
+        searchIndex.onEmployeeChanged(EmployeeChangedEvent.deleted(List.of(2L, 42L)));
+
+        // when -action or the behavior we are going to test
+        List<Employee> stark = searchIndex.suggest("stark", 10);
+        List<Employee> stone = searchIndex.suggest("stone", 10);
+
+        //then - verify the output
+        assertThat(stark).hasSize(1);
+        assertThat(stark.get(0).getFirstName()).isEqualTo("Michael");
+        assertThat(stark.get(0).getVersion()).isEqualTo(1L);
+        assertThat(stone).isEmpty();
+        assertThat(searchIndex.suggest("royf", 10)).extracting(Employee::getId).containsExactly(3L);
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    //Junit test for build method
+    @Test
+    @DisplayName("Junit test for build method, a patch of a row the scan had not loaded yet is not lost")
+    public void givenPatchDuringBuild_whenBuild_thenIndexPatchedRow() {
+        //given - precondition or setup
+        EmployeeService employeeService = mock(EmployeeService.class);
+        EmployeeSearchIndex building = new EmployeeSearchIndex();
+        ReflectionTestUtils.setField(building, "employeeService", employeeService);
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee(1L, "Michael", "Royf", "michael@gmail.com"));
+            // committed while the scan runs; the scan still returns the row as it was when it started
+            building.onEmployeeChanged(EmployeeChangedEvent.patched(2L, Employee.builder().lastName("Stark").build(), null));
+            consumer.accept(employee(2L, "Michelle", "Stone", "m.stone@gmail.com"));
+            return null;
+        }).given(employeeService).exportEmployees(any());
+        Employee patched = employee(2L, "Michelle", "Stark", "m.stone@gmail.com");
+        patched.setVersion(1L);
+        given(employeeService.getEmployeeById(2L)).willReturn(Optional.of(patched));
+
+        // when -action or the behavior we are going to test
+        building.build();
+
+        //then - verify the output
+        List<Employee> stark = building.suggest("stark", 10);
+        assertThat(stark).extracting(Employee::getId).containsExactly(2L);
+        assertThat(stark.get(0).getVersion()).isEqualTo(1L);
+        assertThat(building.size()).isEqualTo(2);
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String email) {
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).build();
+    }
+}
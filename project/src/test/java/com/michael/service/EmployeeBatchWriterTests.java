@@ -0,0 +1,70 @@
+package com.michael.service;
+
+import com.michael.dto.BatchItemResult;
+import com.michael.event.EmployeeChangedEvent;
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import com.michael.service.impl.EmployeeBatchWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeBatchWriterTests {
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private EmployeeBatchWriter batchWriter;
+
+    //Junit test for write Employees batch method
+    @Test
+    @DisplayName("Junit test for write Employees batch method")
+    public void givenEmployeeBatch_whenWrite_thenReportOutcomePerItem() {
+        //given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Michael").lastName("Royf").email("michael@gmail.com").build();
+        Employee existing = Employee.builder().firstName("Tony").lastName("Stark").email("TONY@gmail.com").build();
+        Employee duplicateInRequest = Employee.builder().firstName("Mike").lastName("Royf").email("michael@gmail.com").build();
+        Employee invalid = Employee.builder().firstName("Anna").email("anna@gmail.com").build();
+        given(employeeRepository.findExistingEmails(any()))
+                .willReturn(List.of("tony@gmail.com"));
+        given(employeeRepository.save(employee))
+                .willReturn(employee);
+        List<Integer> savedIndexes = new ArrayList<>();
+
+        // when -action or the behavior we are going to test
+        List<BatchItemResult> results = batchWriter.write(List.of(employee, existing, duplicateInRequest, invalid),
+                (savedEmployee, index) -> savedIndexes.add(index));
+
+        //then - verify the output
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemResult.Status.CREATED,
+                BatchItemResult.Status.DUPLICATE,
+                BatchItemResult.Status.DUPLICATE,
+                BatchItemResult.Status.INVALID);
+        assertThat(results.get(0).getId()).isEqualTo(employee.getId());
+        assertThat(savedIndexes).containsExactly(0);
+        verify(employeeRepository, times(1)).findExistingEmails(
+                argThat(emails -> emails.containsAll(List.of("TONY@gmail.com", "tony@gmail.com"))));
+        verify(employeeRepository, times(1)).save(any(Employee.class));
+        verify(employeeRepository, never()).findByEmail(any());
+        verify(eventPublisher).publishEvent(any(EmployeeChangedEvent.class));
+    }
+}
@@ -0,0 +1,136 @@
+package com.michael.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.michael.config.CacheConfig;
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import com.michael.service.impl.EmployeeBatchWriter;
+import com.michael.service.impl.EmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringJUnitConfig({CacheConfig.class, EmployeeServiceImpl.class})
+public class EmployeeServiceCacheTests {
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @MockBean
+    private EmployeeBatchWriter batchWriter;
+
+    // only needed to satisfy @PersistenceContext in EmployeeServiceImpl
+    @MockBean
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES).clear();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Michael")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
+    }
+
+    //Junit test for repeated get employee by id
+    @Test
+    @DisplayName("Junit test for repeated get employee by id, served from cache")
+    public void givenCachedEmployee_whenGetEmployeeByIdTwice_thenRepositoryCalledOnce() {
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        long hitsBefore = stats().hitCount();
+
+        // when -action or the behavior we are going to test
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(1L);
+
+        //then - verify the output
+        assertThat(cachedEmployee).contains(employee);
+        verify(employeeRepository, times(1)).findById(1L);
+        assertThat(stats().hitCount() - hitsBefore).isEqualTo(1);
+    }
+
+    //Junit test for repeated get employee by id of a missing employee
+    @Test
+    @DisplayName("Junit test for repeated get employee by id, negative result cached")
+    public void givenMissingEmployee_whenGetEmployeeByIdTwice_thenEmptyResultCached() {
+        //given - precondition or setup
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+
+        // when -action or the behavior we are going to test
+        employeeService.getEmployeeById(2L);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(2L);
+
+        //then - verify the output
+        assertThat(cachedEmployee).isEmpty();
+        verify(employeeRepository, times(1)).findById(2L);
+    }
+
+    //Junit test for get employee by id after update
+    @Test
+    @DisplayName("Junit test for get employee by id after update, cache refreshed")
+    public void givenCachedEmployee_whenUpdateEmployee_thenCacheHoldsUpdatedEmployee() {
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        Employee updatedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("MICHAEL")
+                .lastName("Royf")
+                .email("michael@gmail.com")
+                .build();
+        given(employeeRepository.save(updatedEmployee)).willReturn(updatedEmployee);
+        employeeService.getEmployeeById(1L);
+
+        // when -action or the behavior we are going to test
+        employeeService.updateEmployee(updatedEmployee);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(1L);
+
+        //then - verify the output
+        assertThat(cachedEmployee).contains(updatedEmployee);
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    //Junit test for get employee by id after delete
+    @Test
+    @DisplayName("Junit test for get employee by id after delete, cache evicted")
+    public void givenCachedEmployee_whenDeleteEmployee_thenNextGetReadsRepository() {
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+
+        // when -action or the behavior we are going to test
+        employeeService.deleteEmployee(1L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty());
+        Optional<Employee> deletedEmployee = employeeService.getEmployeeById(1L);
+
+        //then - verify the output
+        assertThat(deletedEmployee).isEmpty();
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    private CacheStats stats() {
+        return ((CaffeineCache) cacheManager.getCache(CacheConfig.EMPLOYEES)).getNativeCache().stats();
+    }
+}
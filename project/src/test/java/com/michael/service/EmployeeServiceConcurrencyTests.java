@@ -0,0 +1,87 @@
+package com.michael.service;
+
+import com.michael.config.CacheConfig;
+import com.michael.exception.ResourceNotFoundException;
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import com.michael.service.impl.EmployeeBatchWriter;
+import com.michael.service.impl.EmployeeServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// runs without the test transaction so every create commits on its own, like concurrent HTTP requests do
+@DataJpaTest
+@Import({EmployeeServiceImpl.class, EmployeeBatchWriter.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeServiceConcurrencyTests {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @AfterEach
+    public void cleanup() {
+        employeeRepository.deleteAll();
+    }
+
+    //Junit test for concurrent save Employee calls with the same email
+    @Test
+    @DisplayName("Junit test for concurrent save Employee calls with the same email")
+    public void givenParallelCreatesWithSameEmail_whenSaveEmployee_thenExactlyOneSucceeds() throws Exception {
+        //given - precondition or setup
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when -action or the behavior we are going to test
+        for (int i = 0; i < THREADS; i++) {
+            int attempt = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    employeeService.saveEmployee(Employee.builder()
+                            .firstName("Michael" + attempt)
+                            .lastName("Royf")
+                            .email("michael@gmail.com")
+                            .build());
+                    created.incrementAndGet();
+                } catch (ResourceNotFoundException e) {
+                    duplicates.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then - verify the output
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(duplicates.get()).isEqualTo(THREADS - 1);
+        assertThat(employeeRepository.findAll()).hasSize(1);
+    }
+}
@@ -1,31 +1,56 @@
 package com.michael.service;
 
+import com.michael.config.CacheConfig;
+import com.michael.dto.BatchItemResult;
+import com.michael.event.EmployeeChangedEvent;
 import com.michael.exception.ResourceNotFoundException;
 import com.michael.model.Employee;
 import com.michael.repository.EmployeeRepository;
+import com.michael.service.impl.EmployeeBatchWriter;
 import com.michael.service.impl.EmployeeServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EmployeeBatchWriter batchWriter;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -49,14 +74,13 @@ public class EmployeeServiceTests {
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
         //given - precondition or setup
 
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.empty());
         given(employeeRepository.save(employee))
                 .willReturn(employee);
         // when -action or the behavior we are going to test
         Employee savedEmployee = employeeService.saveEmployee(employee);
         //then - verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(any());
     }
 
     //Junit test for save Employee method which throws exception
@@ -64,8 +88,9 @@ public class EmployeeServiceTests {
     @DisplayName("Junit test for save Employee method which throws exception")
     public void givenExistingEmail_whenSaveEmployee_thenReturnThrowsException() {
         //given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee))
+                .willThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+                        "Duplicate entry", new SQLException(), "employees." + Employee.EMAIL_CONSTRAINT)));
 
         // when -action or the behavior we are going to test
         org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
@@ -73,9 +98,69 @@ public class EmployeeServiceTests {
         });
 
         //then - verify the output
+        verify(employeeRepository, never()).findByEmail(any());
+    }
+
+    //Junit test for save Employee method which fails on another constraint
+    @Test
+    @DisplayName("Junit test for save Employee method which fails on another constraint")
+    public void givenOtherConstraintViolation_whenSaveEmployee_thenRethrowOriginalException() {
+        //given - precondition or setup
+        given(employeeRepository.save(employee))
+                .willThrow(new DataIntegrityViolationException("not null"));
+
+        // when -action or the behavior we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+            employeeService.saveEmployee(employee);
+        });
+    }
+
+
+    //Junit test for save Employees batch method
+    @Test
+    @DisplayName("Junit test for save Employees batch method, written by the batch writer")
+    public void givenEmployeeBatch_whenSaveEmployees_thenDelegateToBatchWriter() {
+        //given - precondition or setup
+        List<Employee> employees = List.of(employee);
+        List<BatchItemResult> written = List.of(BatchItemResult.builder()
+                .index(0)
+                .email(employee.getEmail())
+                .status(BatchItemResult.Status.CREATED)
+                .id(employee.getId())
+                .build());
+        given(batchWriter.write(employees)).willReturn(written);
+
+        // when -action or the behavior we are going to test
+        List<BatchItemResult> results = employeeService.saveEmployees(employees);
+
+        //then - verify the output
+        assertThat(results).isSameAs(written);
         verify(employeeRepository, never()).save(any(Employee.class));
     }
 
+    //Junit test for save Employees batch method which meets a concurrent create
+    @Test
+    @DisplayName("Junit test for save Employees batch method, an email taken meanwhile is reported per item")
+    public void givenEmailTakenConcurrently_whenSaveEmployees_thenWriteBatchAgain() {
+        //given - precondition or setup
+        List<Employee> employees = List.of(employee);
+        List<BatchItemResult> written = List.of(BatchItemResult.builder()
+                .index(0)
+                .email(employee.getEmail())
+                .status(BatchItemResult.Status.DUPLICATE)
+                .build());
+        given(batchWriter.write(employees))
+                .willThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+                        "Duplicate entry", new SQLException(), "employees." + Employee.EMAIL_CONSTRAINT)))
+                .willReturn(written);
+
+        // when -action or the behavior we are going to test
+        List<BatchItemResult> results = employeeService.saveEmployees(employees);
+
+        //then - verify the output
+        assertThat(results).isSameAs(written);
+        verify(batchWriter, times(2)).write(employees);
+    }
 
     //Junit test for get all Employees method
     @Test
@@ -118,6 +203,55 @@ public class EmployeeServiceTests {
     }
 
 
+    //Junit test for get Employees page method
+    @Test
+    @DisplayName("Junit test for get Employees page method")
+    public void givenCursor_whenGetEmployeesAfter_thenReturnSlice() {
+        //given - precondition or setup
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 10)))
+                .willReturn(new SliceImpl<>(List.of(employee)));
+        // when -action or the behavior we are going to test
+        Slice<Employee> page = employeeService.getEmployeesAfter(1L, 10);
+
+        //then - verify the output
+        assertThat(page.getContent()).containsExactly(employee);
+        verify(employeeRepository, never()).count();
+    }
+
+
+    //Junit test for search Employees method
+    @Test
+    @DisplayName("Junit test for search Employees method")
+    public void givenLastNamePrefix_whenSearchEmployees_thenQueryInIndexOrder() {
+        //given - precondition or setup
+        PageRequest pageRequest = PageRequest.of(1, 20, Sort.by("lastName", "firstName", "id"));
+        given(employeeRepository.findByLastNameStartingWithAndFirstNameStartingWith("Ro", "", pageRequest))
+                .willReturn(new SliceImpl<>(List.of(employee)));
+        // when -action or the behavior we are going to test
+        Slice<Employee> result = employeeService.searchEmployees(null, "Ro", 1, 20);
+
+        //then - verify the output
+        assertThat(result.getContent()).containsExactly(employee);
+    }
+
+
+    //Junit test for export Employees method
+    @Test
+    @DisplayName("Junit test for export Employees method")
+    public void givenEmployeeStream_whenExportEmployees_thenDetachAndHandOverEachRow() {
+        //given - precondition or setup
+        given(employeeRepository.streamAll()).willReturn(Stream.of(employee));
+        List<Employee> exported = new ArrayList<>();
+        // when -action or the behavior we are going to test
+        employeeService.exportEmployees(exported::add);
+
+        //then - verify the output
+        assertThat(exported).containsExactly(employee);
+        verify(entityManager).detach(employee);
+        verify(employeeRepository, never()).findAll();
+    }
+
+
     //Junit test for get employee by id
     @Test
     @DisplayName("Junit test for get employee by id")
@@ -149,17 +283,121 @@ public class EmployeeServiceTests {
         assertThat(updatedEmployee.getFirstName()).isEqualTo("MICHAEL");
     }
 
+    //Junit test for patch employee method
+    @Test
+    @DisplayName("Junit test for patch employee method")
+    public void givenChanges_whenPatchEmployee_thenReturnWhetherRowWasUpdated() {
+        //given - precondition or setup
+        Employee changes = Employee.builder().email("MICHAEL@gmail.com").build();
+        given(employeeRepository.patchById(1L, changes, null)).willReturn(1);
+        given(employeeRepository.patchById(2L, changes, null)).willReturn(0);
+
+        // when -action or the behavior we are going to test
+        boolean patched = employeeService.patchEmployee(1L, changes, null);
+        boolean missing = employeeService.patchEmployee(2L, changes, null);
+
+        //then - verify the output
+        assertThat(patched).isTrue();
+        assertThat(missing).isFalse();
+        ArgumentCaptor<EmployeeChangedEvent> event = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getVersion()).isNull();
+        verify(employeeRepository, never()).findById(any());
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    //Junit test for patch employee method - stale version
+    @Test
+    @DisplayName("Junit test for patch employee method - stale version")
+    public void givenStaleVersion_whenPatchEmployee_thenThrowOptimisticLockingFailure() {
+        //given - precondition or setup
+        Employee changes = Employee.builder().email("MICHAEL@gmail.com").build();
+        given(employeeRepository.patchById(1L, changes, 3L)).willReturn(0);
+        given(employeeRepository.patchById(2L, changes, 3L)).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+        given(employeeRepository.existsById(2L)).willReturn(false);
+
+        // when -action or the behavior we are going to test
+        org.junit.jupiter.api.Assertions.assertThrows(OptimisticLockingFailureException.class, () -> {
+            employeeService.patchEmployee(1L, changes, 3L);
+        });
+        boolean missing = employeeService.patchEmployee(2L, changes, 3L);
+
+        //then - verify the output
+        assertThat(missing).isFalse();
+    }
+
+    //Junit test for get employee version method
+    @Test
+    @DisplayName("Junit test for get employee version method")
+    public void givenUncachedEmployee_whenGetEmployeeVersion_thenReadOnlyTheVersion() {
+        //given - precondition or setup
+        given(cacheManager.getCache(CacheConfig.EMPLOYEES)).willReturn(null);
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(3L));
+
+        // when -action or the behavior we are going to test
+        Optional<Long> version = employeeService.getEmployeeVersion(1L);
+
+        //then - verify the output
+        assertThat(version).contains(3L);
+        verify(employeeRepository, never()).findById(any());
+    }
+
     //Junit test for delete Employee method
     @Test
     @DisplayName("Junit test for delete Employee method")
     public void givenEmployeeId_whenDeleteEmplyee_thenNothing() {
         //given - precondition or setup
-        willDoNothing().given(employeeRepository).deleteById(1L);
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+
+        // when -action or the behavior we are going to test
+        boolean deleted = employeeService.deleteEmployee(1L);
+
+        //then - verify the output
+        assertThat(deleted).isTrue();
+        ArgumentCaptor<EmployeeChangedEvent> event = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(EmployeeChangedEvent.Type.DELETED);
+        assertThat(event.getValue().getIds()).containsExactly(1L);
+        verify(employeeRepository, times(1)).deleteEmployeeById(1L);
+        verify(employeeRepository, never()).findById(any());
+        verify(employeeRepository, never()).deleteById(any());
+    }
+
+    //Junit test for delete Employee method with unknown id
+    @Test
+    @DisplayName("Junit test for delete Employee method with unknown id")
+    public void givenUnknownEmployeeId_whenDeleteEmployee_thenReturnFalse() {
+        //given - precondition or setup
+        given(employeeRepository.deleteEmployeeById(2L)).willReturn(0);
+
+        // when -action or the behavior we are going to test
+        boolean deleted = employeeService.deleteEmployee(2L);
+
+        //then - verify the output
+        assertThat(deleted).isFalse();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    //Junit test for bulk delete Employees method
+    @Test
+    @DisplayName("Junit test for bulk delete Employees method, only removed ids are published")
+    public void givenKnownAndUnknownIds_whenDeleteEmployees_thenPublishOnlyRemovedIds() {
+        //given - precondition or setup
+        given(employeeRepository.lockExistingIds(List.of(1L, 2L, 99L))).willReturn(List.of(1L, 2L));
+        given(employeeRepository.deleteEmployeesByIds(List.of(1L, 2L))).willReturn(2);
+        ArgumentCaptor<EmployeeChangedEvent> event = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
 
         // when -action or the behavior we are going to test
-        employeeService.deleteEmployee(1L);
+        int deleted = employeeService.deleteEmployees(List.of(1L, 2L, 99L));
+        int unknown = employeeService.deleteEmployees(List.of(98L, 99L));
 
         //then - verify the output
-        verify(employeeRepository, times(1)).deleteById(1L);
+        assertThat(deleted).isEqualTo(2);
+        assertThat(unknown).isZero();
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(EmployeeChangedEvent.Type.DELETED);
+        assertThat(event.getValue().getIds()).containsExactly(1L, 2L);
+        verify(employeeRepository, times(1)).deleteEmployeesByIds(any());
     }
 }
@@ -0,0 +1,182 @@
+package com.michael.service;
+
+import com.michael.config.CacheConfig;
+import com.michael.dto.BatchItemResult;
+import com.michael.exception.ResourceNotFoundException;
+import com.michael.model.Employee;
+import com.michael.repository.EmployeeRepository;
+import com.michael.service.impl.EmployeeBatchWriter;
+import com.michael.service.impl.EmployeeServiceImpl;
+import com.michael.service.impl.EmployeeWriteBehindQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// creates from many threads share group commits; a long max-delay makes sure they land in the same batch
+@DataJpaTest(properties = {
+        "employee.write-behind.enabled=true",
+        "employee.write-behind.max-delay=200ms"})
+@Import({EmployeeServiceImpl.class, EmployeeBatchWriter.class, EmployeeWriteBehindQueue.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeWriteBehindTests {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @AfterEach
+    public void cleanup() {
+        employeeRepository.deleteAll();
+    }
+
+    //Junit test for concurrent save Employee calls through the write-behind queue
+    @Test
+    @DisplayName("Junit test for concurrent save Employee calls, committed together")
+    public void givenParallelCreates_whenSaveEmployee_thenEveryCallerGetsItsCommittedEmployee() throws Exception {
+        //given - precondition or setup
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when -action or the behavior we are going to test
+        for (int i = 0; i < THREADS; i++) {
+            int attempt = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                Employee savedEmployee = employeeService.saveEmployee(Employee.builder()
+                        .firstName("Michael" + attempt)
+                        .lastName("Royf")
+                        .email("michael" + attempt + "@gmail.com")
+                        .build());
+                // already durable when saveEmployee returns
+                assertThat(employeeRepository.findById(savedEmployee.getId())).isPresent();
+                ids.add(savedEmployee.getId());
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then - verify the output
+        assertThat(ids).hasSize(THREADS);
+        assertThat(employeeRepository.findAll()).hasSize(THREADS);
+    }
+
+    //Junit test for concurrent save Employee calls with the same email through the write-behind queue
+    @Test
+    @DisplayName("Junit test for concurrent save Employee calls with the same email, duplicates reported per call")
+    public void givenParallelCreatesWithSameEmail_whenSaveEmployee_thenExactlyOneSucceeds() throws Exception {
+        //given - precondition or setup
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when -action or the behavior we are going to test
+        for (int i = 0; i < THREADS; i++) {
+            int attempt = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    employeeService.saveEmployee(Employee.builder()
+                            .firstName("Michael" + attempt)
+                            .lastName("Royf")
+                            .email("michael@gmail.com")
+                            .build());
+                    created.incrementAndGet();
+                } catch (ResourceNotFoundException e) {
+                    duplicates.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then - verify the output
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(duplicates.get()).isEqualTo(THREADS - 1);
+        assertThat(employeeRepository.findAll()).hasSize(1);
+    }
+
+    //Junit test for save Employee calls whose commit takes longer than commit-timeout
+    @Test
+    @DisplayName("Junit test for save Employee calls, queued callers stop waiting after commit-timeout")
+    public void givenStuckCommit_whenSaveEmployee_thenRejectQueuedAndAwaitRunningEmployees() throws Exception {
+        //given - precondition or setup
+        EmployeeBatchWriter batchWriter = mock(EmployeeBatchWriter.class);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await(30, TimeUnit.SECONDS);
+            List<Employee> employees = invocation.getArgument(0);
+            ObjIntConsumer<Employee> onSaved = invocation.getArgument(1);
+            onSaved.accept(employees.get(0), 0);
+            return List.of(BatchItemResult.builder().status(BatchItemResult.Status.CREATED).build());
+        }).given(batchWriter).write(any(), any());
+        EmployeeWriteBehindQueue queue = new EmployeeWriteBehindQueue();
+        ReflectionTestUtils.setField(queue, "batchWriter", batchWriter);
+        ReflectionTestUtils.setField(queue, "batchSize", 1);
+        ReflectionTestUtils.setField(queue, "maxDelay", Duration.ZERO);
+        ReflectionTestUtils.setField(queue, "queueCapacity", 10);
+        ReflectionTestUtils.setField(queue, "commitTimeout", Duration.ofMillis(200));
+        queue.start();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // when -action or the behavior we are going to test
+        Employee first = Employee.builder().email("michael@gmail.com").build();
+        Employee second = Employee.builder().email("anna@gmail.com").build();
+        Future<Optional<Employee>> firstSave = executor.submit(() -> queue.save(first));
+
+        //then - verify the output
+        verify(batchWriter, timeout(5000)).write(any(), any());
+        assertThatThrownBy(() -> queue.save(second)).isInstanceOf(TaskRejectedException.class);
+        assertThat(firstSave.isDone()).isFalse();
+        release.countDown();
+        assertThat(firstSave.get(5, TimeUnit.SECONDS)).containsSame(first);
+        queue.stop();
+        executor.shutdown();
+        assertThat(queue.save(first)).isEmpty();
+        verify(batchWriter, times(1)).write(any(), any());
+    }
+}
@@ -0,0 +1,41 @@
+package com.michael.sql;
+
+import net.ttddyy.dsproxy.QueryType;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// guards against N+1 queries and read-before-write regressions, either on a MockMvc response
+// (from the X-SQL-Count header) or around a direct call
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static ResultMatcher atMostStatements(int max) {
+        return result -> assertThat(statementCount(result.getResponse().getHeader(SqlStatementFilter.COUNT_HEADER)))
+                .as("SQL statements issued by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    public static ResultMatcher statements(int expected) {
+        return result -> assertThat(statementCount(result.getResponse().getHeader(SqlStatementFilter.COUNT_HEADER)))
+                .as("SQL statements issued by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isEqualTo(expected);
+    }
+
+    public static <T> void assertAtMostStatements(int max, Supplier<T> call) {
+        assertThat(SqlStatementStats.capture(call).getStatements()).as("SQL statements").isLessThanOrEqualTo(max);
+    }
+
+    public static <T> void assertNoStatements(QueryType type, Supplier<T> call) {
+        assertThat(SqlStatementStats.capture(call).getStatements(type)).as("%s statements", type).isZero();
+    }
+
+    private static int statementCount(String header) {
+        assertThat(header).as(SqlStatementFilter.COUNT_HEADER + " header").isNotNull();
+        return Integer.parseInt(header);
+    }
+}